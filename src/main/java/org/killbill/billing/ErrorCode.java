@@ -358,6 +358,7 @@ public enum ErrorCode {
      *
      */
     USAGE_RECORD_TRACKING_ID_ALREADY_EXISTS(50000, "A usage record with tracking ID %s already exists"),
+    USAGE_RECORD_BUFFER_FULL(50001, "The usage ingestion buffer is full (capacity %s)"),
 
     __UNKNOWN_ERROR_CODE(-1, "Unknown ErrorCode");
 
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.catalog.api;
+
+import java.util.Arrays;
+
+import org.joda.time.Chronology;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeConstants;
+import org.joda.time.DateTimeZone;
+import org.joda.time.LocalDate;
+import org.joda.time.Period;
+import org.joda.time.chrono.ISOChronology;
+
+/**
+ * Generates the successive period boundaries of a {@code BillingPeriod}, e.g. to enumerate service periods.
+ * <p/>
+ * For periods expressed in months or years ({@code MONTHLY}, {@code QUARTERLY}, {@code ANNUAL}, {@code SESQUIENNIAL}, ...),
+ * boundaries are anchored on the bill cycle day of the month of the start date and spaced by the period length, the day
+ * being clamped to the last day of shorter months (a BCD of 31 yields Feb 28, then Mar 31). When that anchor falls before
+ * the start date, the first boundary is one period later (a start date of Jan 20 and a BCD of 15 yields Apr 15 for
+ * {@code QUARTERLY}).
+ * For periods expressed in days or weeks ({@code DAILY}, {@code WEEKLY}, {@code THIRTY_ONE_DAYS}, ...), the bill cycle day
+ * does not apply and boundaries are spaced by the period length from the start date.
+ * <p/>
+ * Dates are exchanged as epoch days (number of days since 1970-01-01): the first day of each month is read from a table
+ * computed once, so that no {@code LocalDate} is allocated per boundary. Instances are immutable and can be shared.
+ */
+public final class BillingPeriodDateGenerator {
+
+    private static final int TABLE_FIRST_YEAR = 1900;
+    private static final int TABLE_LAST_YEAR = 2299;
+    private static final Chronology UTC_CHRONOLOGY = ISOChronology.getInstanceUTC();
+
+    // Epoch day of the first day of each month, from January of TABLE_FIRST_YEAR to January of TABLE_LAST_YEAR + 1
+    private static final int[] MONTH_STARTS = new int[(TABLE_LAST_YEAR - TABLE_FIRST_YEAR + 1) * 12 + 1];
+
+    static {
+        for (int i = 0; i < MONTH_STARTS.length; i++) {
+            MONTH_STARTS[i] = computeMonthStart(TABLE_FIRST_YEAR + i / 12, i % 12 + 1);
+        }
+    }
+
+    private final BillingPeriod billingPeriod;
+    private final int billCycleDay;
+    // Exactly one of them is non zero
+    private final int periodMonths;
+    private final int periodDays;
+
+    /**
+     * @param billingPeriod the billing period, cannot be {@code NO_BILLING_PERIOD}
+     * @param billCycleDay  the bill cycle day (1 to 31), only used for periods expressed in months or years
+     */
+    public BillingPeriodDateGenerator(final BillingPeriod billingPeriod, final int billCycleDay) {
+        final Period period = billingPeriod.getPeriod();
+        final int months = period.getYears() * 12 + period.getMonths();
+        final int days = period.getWeeks() * 7 + period.getDays();
+        if ((months == 0) == (days == 0)) {
+            throw new IllegalArgumentException("Unsupported billing period " + billingPeriod);
+        }
+        if (months > 0 && (billCycleDay < 1 || billCycleDay > 31)) {
+            throw new IllegalArgumentException("Invalid bill cycle day " + billCycleDay);
+        }
+        this.billingPeriod = billingPeriod;
+        this.billCycleDay = billCycleDay;
+        this.periodMonths = months;
+        this.periodDays = days;
+    }
+
+    public BillingPeriod getBillingPeriod() {
+        return billingPeriod;
+    }
+
+    public int getBillCycleDay() {
+        return billCycleDay;
+    }
+
+    /**
+     * @param startDate the start of the range, inclusive
+     * @param endDate   the end of the range, exclusive
+     * @param timeZone  the time zone used to convert the range into local dates (typically the account time zone)
+     * @return the period boundaries within the range, as epoch days
+     */
+    public int[] generate(final DateTime startDate, final DateTime endDate, final DateTimeZone timeZone) {
+        return generate(new LocalDate(startDate, timeZone), new LocalDate(endDate, timeZone));
+    }
+
+    /**
+     * @param startDate the start of the range, inclusive
+     * @param endDate   the end of the range, exclusive
+     * @return the period boundaries within the range, as epoch days
+     */
+    public int[] generate(final LocalDate startDate, final LocalDate endDate) {
+        return generate(toEpochDay(startDate), toEpochDay(endDate));
+    }
+
+    /**
+     * @param startEpochDay the start of the range, inclusive
+     * @param endEpochDay   the end of the range, exclusive
+     * @return the period boundaries within the range, as epoch days
+     */
+    public int[] generate(final int startEpochDay, final int endEpochDay) {
+        if (endEpochDay <= startEpochDay) {
+            return new int[0];
+        }
+
+        if (periodDays > 0) {
+            final int[] result = new int[(endEpochDay - startEpochDay - 1) / periodDays + 1];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = startEpochDay + i * periodDays;
+            }
+            return result;
+        }
+
+        // Month of the first boundary: the month of the start date, unless its BCD is already past
+        int month = monthOf(startEpochDay);
+        if (boundaryInMonth(month) < startEpochDay) {
+            month += periodMonths;
+        }
+
+        // Upper bound on the number of boundaries (each month holds at most one)
+        final int[] result = new int[Math.max(0, (monthOf(endEpochDay) - month) / periodMonths + 1)];
+        int nbBoundaries = 0;
+        for (int boundary = boundaryInMonth(month); boundary < endEpochDay; boundary = boundaryInMonth(month)) {
+            result[nbBoundaries++] = boundary;
+            month += periodMonths;
+        }
+        return nbBoundaries == result.length ? result : Arrays.copyOf(result, nbBoundaries);
+    }
+
+    // month is the number of months since January of year 0
+    private int boundaryInMonth(final int month) {
+        final int monthStart = monthStart(month);
+        final int monthLength = monthStart(month + 1) - monthStart;
+        return monthStart + Math.min(billCycleDay, monthLength) - 1;
+    }
+
+    private static int monthOf(final int epochDay) {
+        final long millis = (long) epochDay * DateTimeConstants.MILLIS_PER_DAY;
+        return UTC_CHRONOLOGY.year().get(millis) * 12 + UTC_CHRONOLOGY.monthOfYear().get(millis) - 1;
+    }
+
+    private static int monthStart(final int month) {
+        final int idx = month - TABLE_FIRST_YEAR * 12;
+        if (idx >= 0 && idx < MONTH_STARTS.length) {
+            return MONTH_STARTS[idx];
+        }
+        return computeMonthStart(Math.floorDiv(month, 12), Math.floorMod(month, 12) + 1);
+    }
+
+    private static int computeMonthStart(final int year, final int monthOfYear) {
+        return (int) Math.floorDiv(UTC_CHRONOLOGY.getDateTimeMillis(year, monthOfYear, 1, 0), (long) DateTimeConstants.MILLIS_PER_DAY);
+    }
+
+    /**
+     * @param date the date
+     * @return the number of days between 1970-01-01 and that date
+     */
+    public static int toEpochDay(final LocalDate date) {
+        return (int) Math.floorDiv(UTC_CHRONOLOGY.getDateTimeMillis(date.getYear(), date.getMonthOfYear(), date.getDayOfMonth(), 0), (long) DateTimeConstants.MILLIS_PER_DAY);
+    }
+
+    /**
+     * @param epochDay the number of days since 1970-01-01
+     * @return the date
+     */
+    public static LocalDate fromEpochDay(final int epochDay) {
+        return new LocalDate((long) epochDay * DateTimeConstants.MILLIS_PER_DAY, DateTimeZone.UTC);
+    }
+}
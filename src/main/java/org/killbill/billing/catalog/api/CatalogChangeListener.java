@@ -0,0 +1,48 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.catalog.api;
+
+import java.util.UUID;
+
+/**
+ * Callback notified when the catalog of a tenant changes, e.g. to invalidate caches derived from it.
+ *
+ * @see CatalogUserApi#registerCatalogChangeListener(CatalogChangeListener, org.killbill.billing.util.callcontext.TenantContext)
+ */
+public interface CatalogChangeListener {
+
+    public enum ChangeType {
+        // CatalogUserApi#uploadCatalog or CatalogUserApi#createDefaultEmptyCatalog
+        UPLOAD,
+        // CatalogUserApi#addSimplePlan or CatalogUserApi#addSimplePlans
+        ADD_SIMPLE_PLAN,
+        // CatalogUserApi#deleteCatalog
+        DELETE
+    }
+
+    /**
+     * Invoked after the change has been persisted, on every node where the listener is registered (not only on the node
+     * which handled the change): notifications are driven by the same cross-node broadcast which invalidates the per-tenant
+     * catalog cache, so they are delivered asynchronously on the other nodes.
+     *
+     * @param tenantId    the tenant id
+     * @param changeType  the type of change
+     * @param fingerprint the new catalog fingerprint, see {@code CatalogUserApi#getCatalogFingerprint}
+     */
+    public void onCatalogChange(UUID tenantId, ChangeType changeType, String fingerprint);
+}
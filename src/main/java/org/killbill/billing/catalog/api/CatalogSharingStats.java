@@ -0,0 +1,47 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.catalog.api;
+
+/**
+ * Snapshot of how catalog versions are shared across tenants on a node.
+ * <p/>
+ * Catalog versions with the same {@link StaticCatalog#getFingerprint()} are loaded once and shared by all the tenants using them.
+ * Sizes are approximated by the size of the serialized catalog versions.
+ */
+public interface CatalogSharingStats {
+
+    /**
+     * @return the number of catalog versions used by all tenants, as if nothing was shared
+     */
+    public long getNbVersionReferences();
+
+    /**
+     * @return the number of distinct catalog versions actually loaded
+     */
+    public long getNbDistinctVersions();
+
+    /**
+     * @return the size of the distinct catalog versions used by more than one tenant
+     */
+    public long getSharedBytes();
+
+    /**
+     * @return the size of the distinct catalog versions used by a single tenant
+     */
+    public long getUniqueBytes();
+}
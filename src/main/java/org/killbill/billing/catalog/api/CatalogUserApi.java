@@ -19,6 +19,8 @@
 
 package org.killbill.billing.catalog.api;
 
+import java.util.List;
+
 import org.joda.time.DateTime;
 import org.killbill.billing.KillbillApi;
 import org.killbill.billing.security.RequiresPermissions;
@@ -51,6 +53,46 @@ public interface CatalogUserApi extends KillbillApi {
      */
     StaticCatalog getCurrentCatalog(String catalogName, TenantContext context) throws CatalogApiException;
 
+    /**
+     * Retrieves statistics about catalog versions shared across tenants on this node
+     *
+     * @param context the user context
+     * @return the {@code CatalogSharingStats}
+     */
+    CatalogSharingStats getCatalogSharingStats(TenantContext context);
+
+    /**
+     * Retrieves statistics about the cache of price override plans on this node
+     *
+     * @param context the user context
+     * @return the {@code PlanOverrideCacheStats}
+     */
+    PlanOverrideCacheStats getPlanOverrideCacheStats(TenantContext context);
+
+    /**
+     * Retrieves a token which changes every time the per-tenant catalog changes, without loading the catalog.
+     * Callers can use it to validate caches derived from {@link #getCatalog(String, TenantContext)}.
+     *
+     * @param context the user context that specifies the tenant information
+     * @return the catalog fingerprint
+     */
+    String getCatalogFingerprint(TenantContext context);
+
+    /**
+     * Registers a listener notified after each change to the per-tenant catalog, whichever node the change was made on.
+     * Listeners are local to this node: each node must register its own.
+     *
+     * @param listener the listener
+     * @param context  the user context, only changes for that tenant are notified
+     */
+    void registerCatalogChangeListener(CatalogChangeListener listener, TenantContext context);
+
+    /**
+     * @param listener the listener to remove
+     * @param context  the user context
+     */
+    void unregisterCatalogChangeListener(CatalogChangeListener listener, TenantContext context);
+
     /**
      * @param catalogXML the catalog XML
      * @param context    the user context
@@ -91,6 +133,20 @@ public interface CatalogUserApi extends KillbillApi {
     @RequiresPermissions(CATALOG_CAN_UPLOAD)
     void addSimplePlan(SimplePlanDescriptor planDescriptor, DateTime requestedDate, CallContext context) throws CatalogApiException;
 
+    /**
+     * Batch version of {@link #addSimplePlan(SimplePlanDescriptor, DateTime, CallContext)}: all plans are added
+     * in a single new catalog version, validated once.
+     * <p/>
+     * The operation is atomic: if any descriptor is invalid, no plan is added.
+     *
+     * @param planDescriptors the plans to add
+     * @param requestedDate   the requested date
+     * @param context         the user context
+     * @throws CatalogApiException if a descriptor is invalid or if the resulting catalog fails validation
+     */
+    @RequiresPermissions(CATALOG_CAN_UPLOAD)
+    void addSimplePlans(List<SimplePlanDescriptor> planDescriptors, DateTime requestedDate, CallContext context) throws CatalogApiException;
+
     /**
      * Delete a per-tenant catalog  (should be used with caution)
      *
@@ -16,199 +16,242 @@
 
 package org.killbill.billing.catalog.api;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import jakarta.xml.bind.annotation.XmlEnum;
 
 @XmlEnum
 public enum Currency {
     // Fiat currencies
-    AED("د.إ"),
-    AFN("؋"),
-    ALL("L"),
-    AMD("դր."),
-    ANG("ƒ"),
-    AOA("Kz"),
-    ARS("$"),
-    AUD("A$"),
-    AWG("ƒ"),
-    AZN("ман"),
-    BAM("KM"),
-    BBD("Bds$"),
-    BDT("৳"),
-    BGN("лв"),
-    BHD(".د.ب"),
-    BIF("FBu"),
-    BMD("BD$"),
-    BND("B$"),
-    BOB("Bs."),
-    BRL("R$"),
-    BSD("B$"),
-    BTN("Nu."),
-    BWP("P"),
-    BYR("Br"),
-    BZD("BZ$"),
-    CAD("Can$"),
-    CDF("FC"),
-    CHF("SFr"),
-    CLP("CLP$"),
-    CNY("元/圆"),
-    COP("COL$"),
-    CRC("₡"),
-    CUC("CUC$"),
-    CUP("$MN"),
-    CVE("Esc"),
-    CZK("Kč"),
-    DJF("DF"),
-    DKK("Dkr"),
-    DOP("RD$"),
-    DZD("دج"),
-    EGP("ج.م."),
-    ERN("Nfk"),
-    ETB("Br"),
-    EUR("€"),
-    FJD("FJ$"),
-    FKP("FK£"),
-    GBP("£"),
-    GEL("ლ"),
-    GGP("£"),
-    GHS("GH₵"),
-    GIP("£"),
-    GMD("D"),
-    GNF("GFr"),
-    GTQ("Q"),
-    GYD("G$"),
-    HKD("HK$"),
-    HNL("L"),
-    HRK("kn"),
-    HTG("G"),
-    HUF("Ft"),
-    IDR("Rp"),
-    ILS("₪"),
-    IMP("M£"),
-    INR("₹"),
-    IQD("د.ع"),
-    IRR("﷼"),
-    ISK("Íkr"),
-    JEP("£"),
-    JMD("J$"),
-    JOD("JD"),
-    JPY("¥"),
-    KES("Ksh"),
-    KGS("сом"),
-    KHR("៛"),
-    KMF("CF"),
-    KPW("₩"),
-    KRW("₩"),
-    KWD("د.ك"),
-    KYD("CI$"),
-    KZT("₸"),
-    LAK("₭"),
-    LBP("ل.ل"),
-    LKR("රු"),
-    LRD("L$"),
-    LSL("M"),
-    LTL("Lt"),
-    LVL("Ls"),
-    LYD("ل.د"),
-    MAD("د.م."),
-    MDL("L"),
-    MGA("Ar"),
-    MKD("ден"),
-    MMK("K"),
-    MNT("₮"),
-    MOP("MOP$"),
-    MRO("UM"),
-    MUR("₨"),
-    MVR("Rf."),
-    MWK("MK"),
-    MXN("Mex$"),
-    MYR("RM"),
-    MZN("MT"),
-    NAD("N$"),
-    NGN("₦"),
-    NIO("C$"),
-    NOK("kr"),
-    NPR("रू"),
-    NZD("NZ$"),
-    OMR("ر.ع"),
-    PAB("B/."),
-    PEN("S/."),
-    PGK("K"),
-    PHP("₱"),
-    PKR("₨"),
-    PLN("zł"),
-    PYG("₲"),
-    QAR("ر.ق"),
-    RON("leu"),
-    RSD("Дин"),
-    RUB("p."),
-    RWF("FRw"),
-    SAR("ر.س"),
-    SBD("SI$"),
-    SCR("SRe"),
-    SDG("ج.س."),
-    SEK("kr"),
-    SGD("S$"),
-    SHP("£"),
-    SLL("Le"),
-    SOS("Sh.So."),
-    SPL("SPL"),
-    SRD("SRD"),
-    STD("Db"),
-    SVC("₡"),
-    SYP("ل.س"),
-    SZL("L"),
-    THB("฿"),
-    TJS("SM"),
-    TMT("m"),
-    TND("د.ت"),
-    TOP("T$"),
-    TRY("₺"),
-    TTD("TT$"),
-    TVD("$"),
-    TWD("NT$"),
-    TZS("TSh"),
-    UAH("₴"),
-    UGX("USh"),
-    USD("US$"),
-    UYU("$U"),
-    UZS("som"),
-    VEF("Bs."),
-    VND("₫"),
-    VUV("VT"),
-    WST("WS$"),
-    XAF("FCFA"),
-    XCD("EC$"),
-    XDR("SDR"),
-    XOF("CFA"),
-    XPF("₣"),
-    YER("﷼"),
-    ZAR("R"),
-    ZMW("ZK"),
-    ZWD("Z$"),
+    AED("د.إ", 784, 2),
+    AFN("؋", 971, 2),
+    ALL("L", 8, 2),
+    AMD("դր.", 51, 2),
+    ANG("ƒ", 532, 2),
+    AOA("Kz", 973, 2),
+    ARS("$", 32, 2),
+    AUD("A$", 36, 2),
+    AWG("ƒ", 533, 2),
+    AZN("ман", 944, 2),
+    BAM("KM", 977, 2),
+    BBD("Bds$", 52, 2),
+    BDT("৳", 50, 2),
+    BGN("лв", 975, 2),
+    BHD(".د.ب", 48, 3),
+    BIF("FBu", 108, 0),
+    BMD("BD$", 60, 2),
+    BND("B$", 96, 2),
+    BOB("Bs.", 68, 2),
+    BRL("R$", 986, 2),
+    BSD("B$", 44, 2),
+    BTN("Nu.", 64, 2),
+    BWP("P", 72, 2),
+    BYR("Br", 974, 0),
+    BZD("BZ$", 84, 2),
+    CAD("Can$", 124, 2),
+    CDF("FC", 976, 2),
+    CHF("SFr", 756, 2),
+    CLP("CLP$", 152, 0),
+    CNY("元/圆", 156, 2),
+    COP("COL$", 170, 2),
+    CRC("₡", 188, 2),
+    CUC("CUC$", 931, 2),
+    CUP("$MN", 192, 2),
+    CVE("Esc", 132, 2),
+    CZK("Kč", 203, 2),
+    DJF("DF", 262, 0),
+    DKK("Dkr", 208, 2),
+    DOP("RD$", 214, 2),
+    DZD("دج", 12, 2),
+    EGP("ج.م.", 818, 2),
+    ERN("Nfk", 232, 2),
+    ETB("Br", 230, 2),
+    EUR("€", 978, 2),
+    FJD("FJ$", 242, 2),
+    FKP("FK£", 238, 2),
+    GBP("£", 826, 2),
+    GEL("ლ", 981, 2),
+    GGP("£", -1, 2),
+    GHS("GH₵", 936, 2),
+    GIP("£", 292, 2),
+    GMD("D", 270, 2),
+    GNF("GFr", 324, 0),
+    GTQ("Q", 320, 2),
+    GYD("G$", 328, 2),
+    HKD("HK$", 344, 2),
+    HNL("L", 340, 2),
+    HRK("kn", 191, 2),
+    HTG("G", 332, 2),
+    HUF("Ft", 348, 2),
+    IDR("Rp", 360, 2),
+    ILS("₪", 376, 2),
+    IMP("M£", -1, 2),
+    INR("₹", 356, 2),
+    IQD("د.ع", 368, 3),
+    IRR("﷼", 364, 2),
+    ISK("Íkr", 352, 0),
+    JEP("£", -1, 2),
+    JMD("J$", 388, 2),
+    JOD("JD", 400, 3),
+    JPY("¥", 392, 0),
+    KES("Ksh", 404, 2),
+    KGS("сом", 417, 2),
+    KHR("៛", 116, 2),
+    KMF("CF", 174, 0),
+    KPW("₩", 408, 2),
+    KRW("₩", 410, 0),
+    KWD("د.ك", 414, 3),
+    KYD("CI$", 136, 2),
+    KZT("₸", 398, 2),
+    LAK("₭", 418, 2),
+    LBP("ل.ل", 422, 2),
+    LKR("රු", 144, 2),
+    LRD("L$", 430, 2),
+    LSL("M", 426, 2),
+    LTL("Lt", 440, 2),
+    LVL("Ls", 428, 2),
+    LYD("ل.د", 434, 3),
+    MAD("د.م.", 504, 2),
+    MDL("L", 498, 2),
+    MGA("Ar", 969, 2),
+    MKD("ден", 807, 2),
+    MMK("K", 104, 2),
+    MNT("₮", 496, 2),
+    MOP("MOP$", 446, 2),
+    MRO("UM", 478, 2),
+    MUR("₨", 480, 2),
+    MVR("Rf.", 462, 2),
+    MWK("MK", 454, 2),
+    MXN("Mex$", 484, 2),
+    MYR("RM", 458, 2),
+    MZN("MT", 943, 2),
+    NAD("N$", 516, 2),
+    NGN("₦", 566, 2),
+    NIO("C$", 558, 2),
+    NOK("kr", 578, 2),
+    NPR("रू", 524, 2),
+    NZD("NZ$", 554, 2),
+    OMR("ر.ع", 512, 3),
+    PAB("B/.", 590, 2),
+    PEN("S/.", 604, 2),
+    PGK("K", 598, 2),
+    PHP("₱", 608, 2),
+    PKR("₨", 586, 2),
+    PLN("zł", 985, 2),
+    PYG("₲", 600, 0),
+    QAR("ر.ق", 634, 2),
+    RON("leu", 946, 2),
+    RSD("Дин", 941, 2),
+    RUB("p.", 643, 2),
+    RWF("FRw", 646, 0),
+    SAR("ر.س", 682, 2),
+    SBD("SI$", 90, 2),
+    SCR("SRe", 690, 2),
+    SDG("ج.س.", 938, 2),
+    SEK("kr", 752, 2),
+    SGD("S$", 702, 2),
+    SHP("£", 654, 2),
+    SLL("Le", 694, 2),
+    SOS("Sh.So.", 706, 2),
+    SPL("SPL", -1, 2),
+    SRD("SRD", 968, 2),
+    STD("Db", 678, 2),
+    SVC("₡", 222, 2),
+    SYP("ل.س", 760, 2),
+    SZL("L", 748, 2),
+    THB("฿", 764, 2),
+    TJS("SM", 972, 2),
+    TMT("m", 934, 2),
+    TND("د.ت", 788, 3),
+    TOP("T$", 776, 2),
+    TRY("₺", 949, 2),
+    TTD("TT$", 780, 2),
+    TVD("$", -1, 2),
+    TWD("NT$", 901, 2),
+    TZS("TSh", 834, 2),
+    UAH("₴", 980, 2),
+    UGX("USh", 800, 0),
+    USD("US$", 840, 2),
+    UYU("$U", 858, 2),
+    UZS("som", 860, 2),
+    VEF("Bs.", 937, 2),
+    VND("₫", 704, 0),
+    VUV("VT", 548, 0),
+    WST("WS$", 882, 2),
+    XAF("FCFA", 950, 0),
+    XCD("EC$", 951, 2),
+    XDR("SDR", 960, -1),
+    XOF("CFA", 952, 0),
+    XPF("₣", 953, 0),
+    YER("﷼", 886, 2),
+    ZAR("R", 710, 2),
+    ZMW("ZK", 967, 2),
+    ZWD("Z$", 716, 2),
 
     // Alternative currencies
-    BTC("Ƀ");
+    BTC("Ƀ", -1, 8);
+
+    private static final Map<String, Currency> CURRENCIES_BY_CODE = new HashMap<String, Currency>();
+
+    static {
+        for (final Currency currency : Currency.values()) {
+            CURRENCIES_BY_CODE.put(currency.toString(), currency);
+        }
+    }
 
     private final String symbol;
+    private final int numericCode;
+    private final int minorUnitScale;
 
-    Currency(final String symbol) {
+    Currency(final String symbol, final int numericCode, final int minorUnitScale) {
         this.symbol = symbol;
+        this.numericCode = numericCode;
+        this.minorUnitScale = minorUnitScale;
     }
 
     public String getSymbol() {
         return symbol;
     }
 
+    /**
+     * @return the ISO 4217 numeric code, -1 for currencies without one
+     */
+    public int getNumericCode() {
+        return numericCode;
+    }
+
+    /**
+     * @return the number of digits after the decimal separator (e.g. 2 for USD, 0 for JPY), -1 if not applicable
+     */
+    public int getMinorUnitScale() {
+        return minorUnitScale;
+    }
+
     public static Currency getDefaultCurrency() {
         return Currency.USD;
     }
 
+    /**
+     * @param currencyCode the currency code
+     * @return the matching {@code Currency}, or the default currency if the code is unknown
+     * @see #fromCodeStrict(String)
+     */
     public static Currency fromCode(final String currencyCode) {
-        for (final Currency currency : Currency.values()) {
-            if (currency.toString().equals(currencyCode)) {
-                return currency;
-            }
+        final Currency currency = currencyCode == null ? null : CURRENCIES_BY_CODE.get(currencyCode);
+        return currency == null ? getDefaultCurrency() : currency;
+    }
+
+    /**
+     * @param currencyCode the currency code
+     * @return the matching {@code Currency}
+     * @throws IllegalArgumentException if the code is unknown
+     */
+    public static Currency fromCodeStrict(final String currencyCode) {
+        final Currency currency = currencyCode == null ? null : CURRENCIES_BY_CODE.get(currencyCode);
+        if (currency == null) {
+            throw new IllegalArgumentException("Unknown currency code " + currencyCode);
         }
-        return getDefaultCurrency();
+        return currency;
     }
 }
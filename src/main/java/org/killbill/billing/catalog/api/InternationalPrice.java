@@ -36,6 +36,15 @@ public interface InternationalPrice {
      */
     public abstract BigDecimal getPrice(Currency currency) throws CatalogApiException;
 
+    /**
+     * Non throwing version of {@link #getPrice(Currency)}, for scans across many prices and currencies.
+     *
+     * @param currency the currency
+     * @return the price associated with that currency, null if there is no entry or if its value is null
+     * @see PriceVector
+     */
+    public abstract BigDecimal findPrice(Currency currency);
+
     /**
      * @return whether this is a zero price
      */
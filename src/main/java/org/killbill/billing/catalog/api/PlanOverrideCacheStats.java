@@ -0,0 +1,51 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.catalog.api;
+
+/**
+ * Snapshot of the cache of plans created by {@link StaticCatalog#createOrFindPlan(PlanSpecifier, PlanPhasePriceOverridesWithCallContext)}.
+ * <p/>
+ * Counters are cumulative since the node started.
+ */
+public interface PlanOverrideCacheStats {
+
+    /**
+     * @return the number of lookups resolved from the cache
+     */
+    public long getHitCount();
+
+    /**
+     * @return the number of lookups which had to find or create the override plan
+     */
+    public long getMissCount();
+
+    /**
+     * @return the number of override plans evicted to honor the maximum size
+     */
+    public long getEvictionCount();
+
+    /**
+     * @return the number of override plans currently cached
+     */
+    public long getSize();
+
+    /**
+     * @return the maximum number of override plans cached
+     */
+    public long getMaxSize();
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.catalog.api;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Canonical key of the content of a {@link StaticCatalog#createOrFindPlan(PlanSpecifier, PlanPhasePriceOverridesWithCallContext)} call.
+ * <p/>
+ * Two calls yield equal keys when they are made for the same tenant and target the same {@code PlanSpecifier} with the same
+ * overridden prices, regardless of the order of the phase and usage overrides and of the scale of the amounts (10 and 10.00
+ * are the same price). Override plans are created per tenant: the tenant is part of the key, so that a cache shared by
+ * several tenants (catalog versions can be shared across tenants) never returns the plan of another tenant.
+ * The key is computed once from a canonical text form of the overrides, so it can be used to look up override plans in a cache.
+ */
+public final class PlanOverrideKey {
+
+    private static final String NULL_VALUE = "~";
+
+    private final String canonicalForm;
+    private final int hash;
+
+    private PlanOverrideKey(final String canonicalForm) {
+        this.canonicalForm = canonicalForm;
+        this.hash = canonicalForm.hashCode();
+    }
+
+    /**
+     * @param spec      the specification for the {@code Plan}
+     * @param overrides the price overrides and the context of the call, which holds the tenant
+     * @return the canonical key
+     */
+    public static PlanOverrideKey of(final PlanSpecifier spec, final PlanPhasePriceOverridesWithCallContext overrides) {
+        final UUID tenantId = overrides.getCallContext() != null ? overrides.getCallContext().getTenantId() : null;
+        final List<PlanPhasePriceOverride> phaseOverrideList = overrides.getOverrides();
+
+        final StringBuilder sb = new StringBuilder();
+        append(sb, tenantId);
+        appendSpecifier(sb, spec);
+
+        final List<String> phaseOverrides = new ArrayList<String>();
+        if (phaseOverrideList != null) {
+            for (final PlanPhasePriceOverride override : phaseOverrideList) {
+                phaseOverrides.add(toCanonicalForm(override));
+            }
+        }
+        appendSorted(sb, phaseOverrides);
+        return new PlanOverrideKey(sb.toString());
+    }
+
+    /**
+     * @return the canonical text form of the overrides
+     */
+    public String getCanonicalForm() {
+        return canonicalForm;
+    }
+
+    private static String toCanonicalForm(final PlanPhasePriceOverride override) {
+        final StringBuilder sb = new StringBuilder();
+        append(sb, override.getPhaseName());
+        if (override.getPlanPhaseSpecifier() == null) {
+            append(sb, null);
+        } else {
+            appendSpecifier(sb, override.getPlanPhaseSpecifier());
+            append(sb, override.getPlanPhaseSpecifier().getPhaseType());
+        }
+        append(sb, override.getCurrency());
+        append(sb, override.getFixedPrice());
+        append(sb, override.getRecurringPrice());
+
+        final List<String> usageOverrides = new ArrayList<String>();
+        if (override.getUsagePriceOverrides() != null) {
+            for (final UsagePriceOverride usageOverride : override.getUsagePriceOverrides()) {
+                usageOverrides.add(toCanonicalForm(usageOverride));
+            }
+        }
+        appendSorted(sb, usageOverrides);
+        return sb.toString();
+    }
+
+    private static String toCanonicalForm(final UsagePriceOverride override) {
+        final StringBuilder sb = new StringBuilder();
+        append(sb, override.getName());
+        append(sb, override.getUsageType());
+        // Tiers and blocks are ordered
+        final List<TierPriceOverride> tierOverrides = override.getTierPriceOverrides();
+        append(sb, tierOverrides == null ? 0 : tierOverrides.size());
+        if (tierOverrides != null) {
+            for (final TierPriceOverride tierOverride : tierOverrides) {
+                final List<TieredBlockPriceOverride> blockOverrides = tierOverride.getTieredBlockPriceOverrides();
+                append(sb, blockOverrides == null ? 0 : blockOverrides.size());
+                if (blockOverrides != null) {
+                    for (final TieredBlockPriceOverride blockOverride : blockOverrides) {
+                        append(sb, blockOverride.getUnitName());
+                        append(sb, blockOverride.getSize());
+                        append(sb, blockOverride.getPrice());
+                        append(sb, blockOverride.getCurrency());
+                        append(sb, blockOverride.getMax());
+                    }
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    private static void appendSpecifier(final StringBuilder sb, final PlanSpecifier spec) {
+        append(sb, spec.getPlanName());
+        append(sb, spec.getProductName());
+        append(sb, spec.getBillingPeriod());
+        append(sb, spec.getPriceListName());
+    }
+
+    private static void appendSorted(final StringBuilder sb, final List<String> values) {
+        Collections.sort(values);
+        append(sb, values.size());
+        for (final String value : values) {
+            append(sb, value);
+        }
+    }
+
+    private static void append(final StringBuilder sb, final BigDecimal value) {
+        append(sb, value == null ? null : value.stripTrailingZeros().toPlainString());
+    }
+
+    private static void append(final StringBuilder sb, final Object value) {
+        if (value == null) {
+            sb.append(NULL_VALUE);
+        } else {
+            // Length-prefixed, so that values cannot be confused with separators
+            final String str = value.toString();
+            sb.append(str.length()).append(':').append(str);
+        }
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        final PlanOverrideKey that = (PlanOverrideKey) o;
+        return hash == that.hash && canonicalForm.equals(that.canonicalForm);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "PlanOverrideKey{" + canonicalForm + "}";
+    }
+}
@@ -55,4 +55,34 @@ public class PlanPhaseSpecifier extends PlanSpecifier {
     public PhaseType getPhaseType() {
         return phaseType;
     }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("PlanPhaseSpecifier{");
+        sb.append("planName='").append(getPlanName()).append('\'');
+        sb.append(", productName='").append(getProductName()).append('\'');
+        sb.append(", billingPeriod=").append(getBillingPeriod());
+        sb.append(", priceListName='").append(getPriceListName()).append('\'');
+        sb.append(", phaseType=").append(phaseType);
+        sb.append('}');
+        return sb.toString();
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (!super.equals(o)) {
+            return false;
+        }
+
+        final PlanPhaseSpecifier that = (PlanPhaseSpecifier) o;
+
+        return phaseType == that.phaseType;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = super.hashCode();
+        result = 31 * result + (phaseType != null ? phaseType.hashCode() : 0);
+        return result;
+    }
 }
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.catalog.api;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.joda.time.Chronology;
+import org.joda.time.DateTimeZone;
+import org.joda.time.DurationField;
+import org.joda.time.chrono.ISOChronology;
+
+/**
+ * Computes the phase boundaries of a {@code Plan} for many subscriptions at once.
+ * <p/>
+ * The plan phases and their {@code Duration} are resolved once, into Joda duration fields of the given time zone;
+ * dates are then exchanged as milliseconds since the epoch, so that computing the timelines of a large batch of
+ * subscriptions is a tight loop over primitive arrays, without allocating a {@code DateTime} per step.
+ * The results match {@link Duration#addToDateTime(org.joda.time.DateTime)} and
+ * {@link Plan#dateOfFirstRecurringNonZeroCharge(org.joda.time.DateTime, PhaseType)} for {@code DateTime} in that time zone.
+ */
+public final class PlanPhaseTimeline {
+
+    /**
+     * Phase start date for phases which are never reached (they follow a phase with an UNLIMITED duration)
+     */
+    public static final long NEVER = Long.MAX_VALUE;
+
+    private final PlanPhase[] phases;
+    // Null for UNLIMITED durations
+    private final DurationField[] durationFields;
+    private final int[] durationNumbers;
+    // Index of the phase which starts with the first recurring non zero charge
+    private final int firstRecurringNonZeroChargePhase;
+
+    private PlanPhaseTimeline(final PlanPhase[] phases, final DurationField[] durationFields, final int[] durationNumbers, final int firstRecurringNonZeroChargePhase) {
+        this.phases = phases;
+        this.durationFields = durationFields;
+        this.durationNumbers = durationNumbers;
+        this.firstRecurringNonZeroChargePhase = firstRecurringNonZeroChargePhase;
+    }
+
+    /**
+     * @param plan             the plan
+     * @param initialPhaseType the type of the initial phase of the subscriptions, null to start with the first phase
+     * @param timeZone         the time zone used for the date arithmetic
+     * @return the timeline calculator
+     * @throws IllegalArgumentException if the plan has no phase of type {@code initialPhaseType}
+     */
+    public static PlanPhaseTimeline compile(final Plan plan, final PhaseType initialPhaseType, final DateTimeZone timeZone) {
+        final List<PlanPhase> phases = new ArrayList<PlanPhase>();
+        for (final PlanPhase phase : plan.getAllPhases()) {
+            if (!phases.isEmpty() || initialPhaseType == null || phase.getPhaseType() == initialPhaseType) {
+                phases.add(phase);
+            }
+        }
+        if (phases.isEmpty()) {
+            throw new IllegalArgumentException(String.format("Plan %s does not have a phase of type %s", plan.getName(), initialPhaseType));
+        }
+
+        final Chronology chronology = ISOChronology.getInstance(timeZone);
+        final DurationField[] durationFields = new DurationField[phases.size()];
+        final int[] durationNumbers = new int[phases.size()];
+        int firstRecurringNonZeroChargePhase = -1;
+        for (int i = 0; i < phases.size(); i++) {
+            final PlanPhase phase = phases.get(i);
+            final Duration duration = phase.getDuration();
+            durationFields[i] = getDurationField(chronology, duration.getUnit());
+            durationNumbers[i] = duration.getNumber();
+
+            if (firstRecurringNonZeroChargePhase == -1 && (durationFields[i] == null || hasRecurringNonZeroCharge(phase))) {
+                firstRecurringNonZeroChargePhase = i;
+            }
+        }
+        if (firstRecurringNonZeroChargePhase == -1) {
+            // No recurring charge at all: the date is the end of the last phase
+            firstRecurringNonZeroChargePhase = phases.size();
+        }
+
+        return new PlanPhaseTimeline(phases.toArray(new PlanPhase[0]), durationFields, durationNumbers, firstRecurringNonZeroChargePhase);
+    }
+
+    private static DurationField getDurationField(final Chronology chronology, final TimeUnit unit) {
+        switch (unit) {
+            case DAYS:
+                return chronology.days();
+            case WEEKS:
+                return chronology.weeks();
+            case MONTHS:
+                return chronology.months();
+            case YEARS:
+                return chronology.years();
+            case UNLIMITED:
+            default:
+                return null;
+        }
+    }
+
+    private static boolean hasRecurringNonZeroCharge(final PlanPhase phase) {
+        final Recurring recurring = phase.getRecurring();
+        return recurring != null && recurring.getRecurringPrice() != null && !recurring.getRecurringPrice().isZero();
+    }
+
+    /**
+     * @return the number of phases, starting with the initial phase
+     */
+    public int getNbPhases() {
+        return phases.length;
+    }
+
+    /**
+     * @param phaseIdx the phase index, 0 being the initial phase
+     * @return the {@code PlanPhase}
+     */
+    public PlanPhase getPhase(final int phaseIdx) {
+        return phases[phaseIdx];
+    }
+
+    /**
+     * @param startDates the subscription start dates, in milliseconds since the epoch
+     * @return for each phase (first dimension), the start date of that phase for each subscription (second dimension),
+     * in milliseconds since the epoch, or {@link #NEVER}
+     */
+    public long[][] computePhaseStartDates(final long[] startDates) {
+        final long[][] result = new long[phases.length][];
+        result[0] = Arrays.copyOf(startDates, startDates.length);
+        for (int p = 1; p < phases.length; p++) {
+            result[p] = new long[startDates.length];
+            addDuration(p - 1, result[p - 1], result[p]);
+        }
+        return result;
+    }
+
+    /**
+     * @param startDates the subscription start dates, in milliseconds since the epoch
+     * @return for each subscription, the date of the first recurring non zero charge, in milliseconds since the epoch
+     * @see Plan#dateOfFirstRecurringNonZeroCharge(org.joda.time.DateTime, PhaseType)
+     */
+    public long[] computeFirstRecurringNonZeroChargeDates(final long[] startDates) {
+        final long[] result = Arrays.copyOf(startDates, startDates.length);
+        for (int p = 0; p < firstRecurringNonZeroChargePhase; p++) {
+            addDuration(p, result, result);
+        }
+        return result;
+    }
+
+    private void addDuration(final int phaseIdx, final long[] from, final long[] to) {
+        final DurationField field = durationFields[phaseIdx];
+        final int number = durationNumbers[phaseIdx];
+        for (int i = 0; i < from.length; i++) {
+            to[i] = (field == null || from[i] == NEVER) ? NEVER : field.add(from[i], number);
+        }
+    }
+}
@@ -85,4 +85,51 @@ public class PlanSpecifier {
     public String getPriceListName() {
         return priceListName;
     }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("PlanSpecifier{");
+        sb.append("planName='").append(planName).append('\'');
+        sb.append(", productName='").append(productName).append('\'');
+        sb.append(", billingPeriod=").append(billingPeriod);
+        sb.append(", priceListName='").append(priceListName).append('\'');
+        sb.append('}');
+        return sb.toString();
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        final PlanSpecifier that = (PlanSpecifier) o;
+
+        if (planName != null ? !planName.equals(that.planName) : that.planName != null) {
+            return false;
+        }
+        if (productName != null ? !productName.equals(that.productName) : that.productName != null) {
+            return false;
+        }
+        if (billingPeriod != that.billingPeriod) {
+            return false;
+        }
+        if (priceListName != null ? !priceListName.equals(that.priceListName) : that.priceListName != null) {
+            return false;
+        }
+
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = planName != null ? planName.hashCode() : 0;
+        result = 31 * result + (productName != null ? productName.hashCode() : 0);
+        result = 31 * result + (billingPeriod != null ? billingPeriod.hashCode() : 0);
+        result = 31 * result + (priceListName != null ? priceListName.hashCode() : 0);
+        return result;
+    }
 }
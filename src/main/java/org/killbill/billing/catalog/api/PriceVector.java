@@ -0,0 +1,105 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.catalog.api;
+
+import java.math.BigDecimal;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Dense, immutable view of an {@code InternationalPrice}, indexed by {@code Currency}.
+ * <p/>
+ * Lookups never throw: a currency without an entry, or with a null value, simply has no price. This makes
+ * catalog-wide scans (e.g. rendering the prices of all plans in all currencies) cheap, compared to relying on
+ * {@code CatalogApiException} for misses.
+ */
+public final class PriceVector {
+
+    private static final Currency[] CURRENCIES = Currency.values();
+
+    // Indexed by Currency ordinal, null when there is no price
+    private final BigDecimal[] prices;
+    private final boolean isZero;
+
+    private PriceVector(final BigDecimal[] prices, final boolean isZero) {
+        this.prices = prices;
+        this.isZero = isZero;
+    }
+
+    /**
+     * @param internationalPrice the price, can be null
+     * @return the vector (empty if {@code internationalPrice} is null)
+     */
+    public static PriceVector of(final InternationalPrice internationalPrice) {
+        final BigDecimal[] prices = new BigDecimal[CURRENCIES.length];
+        if (internationalPrice == null) {
+            return new PriceVector(prices, true);
+        }
+        boolean isZero = true;
+        for (final Price price : internationalPrice.getPrices()) {
+            final BigDecimal value = getValueOrNull(price);
+            prices[price.getCurrency().ordinal()] = value;
+            isZero = isZero && (value == null || value.signum() == 0);
+        }
+        return new PriceVector(prices, isZero);
+    }
+
+    private static BigDecimal getValueOrNull(final Price price) {
+        try {
+            return price.getValue();
+        } catch (final CurrencyValueNull e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param currency the currency
+     * @return the price for that currency, null if there is none
+     */
+    public BigDecimal get(final Currency currency) {
+        return prices[currency.ordinal()];
+    }
+
+    /**
+     * @param currency the currency
+     * @return whether there is a (non null) price for that currency
+     */
+    public boolean hasPrice(final Currency currency) {
+        return prices[currency.ordinal()] != null;
+    }
+
+    /**
+     * @return the currencies for which there is a price
+     */
+    public Set<Currency> getCurrencies() {
+        final Set<Currency> currencies = EnumSet.noneOf(Currency.class);
+        for (int i = 0; i < prices.length; i++) {
+            if (prices[i] != null) {
+                currencies.add(CURRENCIES[i]);
+            }
+        }
+        return currencies;
+    }
+
+    /**
+     * @return whether all the prices are zero
+     */
+    public boolean isZero() {
+        return isZero;
+    }
+}
@@ -40,6 +40,12 @@ public interface StaticCatalog {
      */
     public Date getEffectiveDate();
 
+    /**
+     * @return a hash of the content of this version: versions with the same fingerprint are identical,
+     * and can be shared as a single immutable instance, even across tenants
+     */
+    public String getFingerprint();
+
     /**
      * @return an array of supported {@code Currency}
      */
@@ -68,6 +74,10 @@ public interface StaticCatalog {
 
 
     /**
+     * Override plans are cached in a bounded cache keyed by {@link PlanOverrideKey}, which includes the tenant of the call
+     * context: calls from the same tenant with the same overridden prices resolve to the same {@code Plan} without creating
+     * it again, and plans of a tenant are never returned to another tenant.
+     *
      * @param spec      the specification for the {@code Plan} to be used
      * @param overrides the price override for each phase and for a specific currency
      * @return the {@code Plan}
@@ -82,6 +92,18 @@ public interface StaticCatalog {
      */
     public Plan findPlan(String name) throws CatalogApiException;
 
+    /**
+     * Resolves a {@code PlanSpecifier}, either by plan name or through the {productName, billingPeriod, priceListName} triplet.
+     * <p/>
+     * Implementations are expected to index the plans of the catalog version, so that the lookup does not scan the {@code PriceList}.
+     *
+     * @param spec the specification for the {@code Plan}
+     * @return the {@code Plan}
+     * @throws CatalogApiException if no such {@code Plan} can be found (CAT_PLAN_NOT_FOUND), or if several plans
+     *                             match the triplet (CAT_MULTIPLE_MATCHING_PLANS_FOR_PRICELIST)
+     */
+    public Plan findPlan(PlanSpecifier spec) throws CatalogApiException;
+
     /**
      * @param name the name of the {@code Product}
      * @return the {@code Product}
@@ -110,12 +132,15 @@ public interface StaticCatalog {
     public PriceList findPriceList(String name) throws CatalogApiException;
 
     /**
+     * Listings are computed once per catalog version: the returned list is immutable and shared between calls.
      *
      * @return All existing BASE {@code Plan}
      */
     public List<Listing> getAvailableBasePlanListings();
 
     /**
+     * Listings are computed once per catalog version and indexed by base {@code Product} and {@code PriceList}:
+     * the returned list is immutable and shared between calls.
      *
      * @param baseProductName the base {@code Plan}
      * @param priceListName the base {@code PriceList}
@@ -123,4 +148,13 @@ public interface StaticCatalog {
      */
     public List<Listing> getAvailableAddOnListings(String baseProductName, String priceListName);
 
+    /**
+     * Constant time check based on the same index as {@link #getAvailableAddOnListings(String, String)}.
+     *
+     * @param baseProductName the name of the BASE {@code Product}
+     * @param addOnProductName the name of the ADD_ON {@code Product}
+     * @return whether the ADD_ON {@code Product} is available for purchase with the BASE {@code Product}
+     */
+    public boolean isAddOnAvailable(String baseProductName, String addOnProductName);
+
 }
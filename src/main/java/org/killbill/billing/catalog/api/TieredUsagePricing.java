@@ -0,0 +1,328 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.catalog.api;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.killbill.billing.ErrorCode;
+
+/**
+ * Pricing table for a {@code CONSUMABLE} {@code Usage} section, compiled once from its {@code Tier} and {@code TieredBlock}
+ * definitions into flat arrays, so that quantities can be priced repeatedly without walking the catalog objects.
+ * <p/>
+ * For each unit type, the tiered blocks are considered in catalog order (all blocks of the first tier, then the second tier, ...).
+ * A quantity is converted into a number of blocks by rounding up {@code quantity / size}, and a max of -1 means unlimited:
+ * <ul>
+ * <li>{@code TierBlockPolicy.ALL_TIERS}: each block is filled up to its max (in number of blocks) and the remaining units
+ * spill into the next block; the amount is the sum of the used blocks times their price</li>
+ * <li>{@code TierBlockPolicy.TOP_TIER}: the block the quantity falls in is found the same way (each max being the share of
+ * that block, stacked on the blocks before it), and all units are priced with that block (or the last block if the quantity
+ * exceeds all of them)</li>
+ * </ul>
+ * Quantities are exchanged as unscaled longs at {@link #getQuantityScale()}, i.e. the largest scale of the block sizes, and amounts
+ * as unscaled longs at {@link #getPriceScale(Currency)}, i.e. the largest scale of the block prices in that currency.
+ * Pricing with these primitive methods does not allocate, except to raise an exception.
+ * <p/>
+ * Instances are immutable and can be shared; they should be cached per catalog version.
+ */
+public final class TieredUsagePricing {
+
+    private static final long UNLIMITED = -1;
+    private static final long NO_PRICE = Long.MIN_VALUE;
+    private static final Currency[] CURRENCIES = Currency.values();
+
+    private final String usageName;
+    private final TierBlockPolicy tierBlockPolicy;
+    private final int quantityScale;
+
+    private final Map<String, Integer> unitTypeIndexes;
+    private final String[] unitTypes;
+    // [unitTypeIdx][blockIdx], in quantityScale
+    private final long[][] blockSizes;
+    // [unitTypeIdx][blockIdx], in number of blocks
+    private final long[][] blockMaxes;
+    // [currency ordinal][unitTypeIdx][blockIdx], null for currencies without any price
+    private final long[][][] blockPrices;
+    // [currency ordinal]
+    private final int[] priceScales;
+
+    private TieredUsagePricing(final String usageName,
+                               final TierBlockPolicy tierBlockPolicy,
+                               final int quantityScale,
+                               final Map<String, Integer> unitTypeIndexes,
+                               final String[] unitTypes,
+                               final long[][] blockSizes,
+                               final long[][] blockMaxes,
+                               final long[][][] blockPrices,
+                               final int[] priceScales) {
+        this.usageName = usageName;
+        this.tierBlockPolicy = tierBlockPolicy;
+        this.quantityScale = quantityScale;
+        this.unitTypeIndexes = unitTypeIndexes;
+        this.unitTypes = unitTypes;
+        this.blockSizes = blockSizes;
+        this.blockMaxes = blockMaxes;
+        this.blockPrices = blockPrices;
+        this.priceScales = priceScales;
+    }
+
+    /**
+     * @param usage a {@code CONSUMABLE} usage section
+     * @return the compiled pricing table
+     * @throws IllegalArgumentException if the usage is not {@code CONSUMABLE}, or if a block defines a non positive size,
+     *                                  a non integer max or amounts which do not fit in a long once scaled
+     */
+    public static TieredUsagePricing compile(final Usage usage) {
+        if (usage.getUsageType() != UsageType.CONSUMABLE) {
+            throw new IllegalArgumentException(String.format("Usage %s is not CONSUMABLE", usage.getName()));
+        }
+
+        // Group the blocks per unit, in catalog order
+        final Map<String, List<TieredBlock>> blocksPerUnitType = new LinkedHashMap<String, List<TieredBlock>>();
+        for (final Tier tier : usage.getTiers()) {
+            for (final TieredBlock block : tier.getTieredBlocks()) {
+                List<TieredBlock> blocks = blocksPerUnitType.get(block.getUnit().getName());
+                if (blocks == null) {
+                    blocks = new ArrayList<TieredBlock>();
+                    blocksPerUnitType.put(block.getUnit().getName(), blocks);
+                }
+                blocks.add(block);
+            }
+        }
+
+        int quantityScale = 0;
+        final int[] priceScales = new int[CURRENCIES.length];
+        final boolean[] hasPrices = new boolean[CURRENCIES.length];
+        for (final List<TieredBlock> blocks : blocksPerUnitType.values()) {
+            for (final TieredBlock block : blocks) {
+                if (block.getSize() == null || block.getSize().signum() <= 0) {
+                    throw new IllegalArgumentException(String.format("Usage %s defines a block with an invalid size %s", usage.getName(), block.getSize()));
+                }
+                quantityScale = Math.max(quantityScale, block.getSize().stripTrailingZeros().scale());
+                final PriceVector blockPrice = PriceVector.of(block.getPrice());
+                for (final Currency currency : blockPrice.getCurrencies()) {
+                    priceScales[currency.ordinal()] = Math.max(priceScales[currency.ordinal()], blockPrice.get(currency).stripTrailingZeros().scale());
+                    hasPrices[currency.ordinal()] = true;
+                }
+            }
+        }
+
+        final int nbUnitTypes = blocksPerUnitType.size();
+        final Map<String, Integer> unitTypeIndexes = new HashMap<String, Integer>();
+        final String[] unitTypes = new String[nbUnitTypes];
+        final long[][] blockSizes = new long[nbUnitTypes][];
+        final long[][] blockMaxes = new long[nbUnitTypes][];
+        final long[][][] blockPrices = new long[CURRENCIES.length][][];
+        for (int c = 0; c < CURRENCIES.length; c++) {
+            if (hasPrices[c]) {
+                blockPrices[c] = new long[nbUnitTypes][];
+            }
+        }
+
+        int u = 0;
+        for (final Map.Entry<String, List<TieredBlock>> entry : blocksPerUnitType.entrySet()) {
+            final List<TieredBlock> blocks = entry.getValue();
+            unitTypeIndexes.put(entry.getKey(), u);
+            unitTypes[u] = entry.getKey();
+            blockSizes[u] = new long[blocks.size()];
+            blockMaxes[u] = new long[blocks.size()];
+            for (int c = 0; c < CURRENCIES.length; c++) {
+                if (blockPrices[c] != null) {
+                    blockPrices[c][u] = new long[blocks.size()];
+                    Arrays.fill(blockPrices[c][u], NO_PRICE);
+                }
+            }
+
+            for (int b = 0; b < blocks.size(); b++) {
+                final TieredBlock block = blocks.get(b);
+                blockSizes[u][b] = toUnscaled(usage, block.getSize(), quantityScale);
+                blockMaxes[u][b] = toBlockMax(usage, block.getMax());
+                final PriceVector blockPrice = PriceVector.of(block.getPrice());
+                for (final Currency currency : blockPrice.getCurrencies()) {
+                    final int c = currency.ordinal();
+                    blockPrices[c][u][b] = toUnscaled(usage, blockPrice.get(currency), priceScales[c]);
+                }
+            }
+            u++;
+        }
+
+        return new TieredUsagePricing(usage.getName(), usage.getTierBlockPolicy(), quantityScale, unitTypeIndexes, unitTypes, blockSizes, blockMaxes, blockPrices, priceScales);
+    }
+
+    private static long toBlockMax(final Usage usage, final BigDecimal max) {
+        if (max == null || max.signum() < 0) {
+            return UNLIMITED;
+        }
+        try {
+            return max.longValueExact();
+        } catch (final ArithmeticException e) {
+            throw new IllegalArgumentException(String.format("Usage %s defines a block with an invalid max %s", usage.getName(), max), e);
+        }
+    }
+
+    private static long toUnscaled(final Usage usage, final BigDecimal value, final int scale) {
+        try {
+            return value.setScale(scale, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+        } catch (final ArithmeticException e) {
+            throw new IllegalArgumentException(String.format("Usage %s defines a value %s which cannot be represented with scale %s", usage.getName(), value, scale), e);
+        }
+    }
+
+    public String getUsageName() {
+        return usageName;
+    }
+
+    public TierBlockPolicy getTierBlockPolicy() {
+        return tierBlockPolicy;
+    }
+
+    /**
+     * @return the scale of the unscaled quantities
+     */
+    public int getQuantityScale() {
+        return quantityScale;
+    }
+
+    /**
+     * @param currency the currency
+     * @return the scale of the unscaled amounts in that currency
+     */
+    public int getPriceScale(final Currency currency) {
+        return priceScales[currency.ordinal()];
+    }
+
+    /**
+     * @param currency the currency
+     * @return whether at least one block defines a price in that currency
+     */
+    public boolean hasPrices(final Currency currency) {
+        return blockPrices[currency.ordinal()] != null;
+    }
+
+    /**
+     * @param unitType the unit type
+     * @return the index to use with {@link #computeUnscaledAmount(Currency, int, long)}, -1 if the usage section does not price that unit type
+     */
+    public int getUnitTypeIndex(final String unitType) {
+        final Integer idx = unitTypeIndexes.get(unitType);
+        return idx == null ? -1 : idx;
+    }
+
+    public String getUnitType(final int unitTypeIdx) {
+        return unitTypes[unitTypeIdx];
+    }
+
+    /**
+     * @param currency       the currency
+     * @param unitTypeIdx    the unit type index, see {@link #getUnitTypeIndex(String)}
+     * @param quantity       the quantity, unscaled (see {@link #getQuantityScale()})
+     * @return the amount, unscaled (see {@link #getPriceScale(Currency)})
+     * @throws CatalogApiException if a block used to price that quantity has no price in that currency (CAT_NO_PRICE_FOR_CURRENCY)
+     * @throws ArithmeticException if the amount overflows a long
+     */
+    public long computeUnscaledAmount(final Currency currency, final int unitTypeIdx, final long quantity) throws CatalogApiException {
+        if (quantity <= 0) {
+            return 0;
+        }
+
+        final long[][] pricesForCurrency = blockPrices[currency.ordinal()];
+        if (pricesForCurrency == null) {
+            throw new CatalogApiException(ErrorCode.CAT_NO_PRICE_FOR_CURRENCY, currency);
+        }
+
+        final long[] sizes = blockSizes[unitTypeIdx];
+        final long[] maxes = blockMaxes[unitTypeIdx];
+        final long[] prices = pricesForCurrency[unitTypeIdx];
+        if (tierBlockPolicy == TierBlockPolicy.TOP_TIER) {
+            return computeTopTierAmount(currency, sizes, maxes, prices, quantity);
+        } else {
+            return computeAllTiersAmount(currency, sizes, maxes, prices, quantity);
+        }
+    }
+
+    private static long computeAllTiersAmount(final Currency currency, final long[] sizes, final long[] maxes, final long[] prices, final long quantity) throws CatalogApiException {
+        long amount = 0;
+        long remaining = quantity;
+        for (int b = 0; b < sizes.length && remaining > 0; b++) {
+            final long nbBlocks = ceilDiv(remaining, sizes[b]);
+            final long nbUsedBlocks;
+            if (maxes[b] != UNLIMITED && nbBlocks > maxes[b]) {
+                nbUsedBlocks = maxes[b];
+                remaining -= Math.multiplyExact(maxes[b], sizes[b]);
+            } else {
+                nbUsedBlocks = nbBlocks;
+                remaining = 0;
+            }
+            if (nbUsedBlocks > 0) {
+                amount = Math.addExact(amount, Math.multiplyExact(nbUsedBlocks, getPrice(currency, prices, b)));
+            }
+        }
+        return amount;
+    }
+
+    private static long computeTopTierAmount(final Currency currency, final long[] sizes, final long[] maxes, final long[] prices, final long quantity) throws CatalogApiException {
+        long remaining = quantity;
+        for (int b = 0; b < sizes.length; b++) {
+            if (maxes[b] != UNLIMITED && ceilDiv(remaining, sizes[b]) > maxes[b] && b < sizes.length - 1) {
+                remaining -= Math.multiplyExact(maxes[b], sizes[b]);
+            } else {
+                return Math.multiplyExact(ceilDiv(quantity, sizes[b]), getPrice(currency, prices, b));
+            }
+        }
+        return 0;
+    }
+
+    private static long getPrice(final Currency currency, final long[] prices, final int blockIdx) throws CatalogApiException {
+        final long price = prices[blockIdx];
+        if (price == NO_PRICE) {
+            throw new CatalogApiException(ErrorCode.CAT_NO_PRICE_FOR_CURRENCY, currency);
+        }
+        return price;
+    }
+
+    private static long ceilDiv(final long dividend, final long divisor) {
+        final long quotient = dividend / divisor;
+        return (dividend % divisor == 0) ? quotient : quotient + 1;
+    }
+
+    /**
+     * Convenience version of {@link #computeUnscaledAmount(Currency, int, long)} for {@code BigDecimal} quantities.
+     *
+     * @param currency the currency
+     * @param unitType the unit type
+     * @param quantity the quantity
+     * @return the amount, zero if the usage section does not price that unit type
+     * @throws CatalogApiException if a block used to price that quantity has no price in that currency (CAT_NO_PRICE_FOR_CURRENCY)
+     */
+    public BigDecimal computeAmount(final Currency currency, final String unitType, final BigDecimal quantity) throws CatalogApiException {
+        final int unitTypeIdx = getUnitTypeIndex(unitType);
+        if (unitTypeIdx == -1) {
+            return BigDecimal.ZERO;
+        }
+        // Rounding the quantity up doesn't change the number of blocks, as block sizes are multiples of 10^-quantityScale
+        final long unscaledQuantity = quantity.setScale(quantityScale, RoundingMode.CEILING).unscaledValue().longValueExact();
+        return BigDecimal.valueOf(computeUnscaledAmount(currency, unitTypeIdx, unscaledQuantity), getPriceScale(currency));
+    }
+}
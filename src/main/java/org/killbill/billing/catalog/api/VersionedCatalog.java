@@ -29,11 +29,20 @@ public interface VersionedCatalog {
     public String getCatalogName();
 
     /**
+     * Implementations can build each version lazily, on first access, and evict the versions not recently accessed:
+     * calling this method forces all of them to be loaded. Prefer {@link #getVersion(Date)}, {@link #getCurrentVersion()}
+     * or {@link #getEffectiveDates()} when possible.
      *
      * @return All the (ordered) catalog versions
      */
     public List<StaticCatalog> getVersions();
 
+    /**
+     *
+     * @return the effective dates of all the (ordered) catalog versions, without loading the versions themselves
+     */
+    public List<Date> getEffectiveDates();
+
     /**
      * The latest catalog version is the one used by the system when creating
      *  or change the {@code Plan} associated with a subscription.
@@ -52,7 +61,20 @@ public interface VersionedCatalog {
      * - Specifying a date D such that  D < D1 will by convention return the first version
      * - Specifying a date D such that  D1 <= D < D2 will return S1
      * - Specifying a date D such that  D2 <= D will return S2
+     *
+     * Implementations are expected to index the versions by effective date, so that the lookup is logarithmic in the number of versions.
      */
     public StaticCatalog getVersion(Date targetDate);
 
+    /**
+     * Bulk version of {@link #getVersion(Date)}: each date is resolved as {@link #getVersion(Date)} would.
+     * <p/>
+     * Dates can be in any order. When they are in ascending order (e.g. the billing event dates of an invoice run),
+     * implementations can resolve all of them in a single pass over the versions; otherwise each date is looked up on its own.
+     *
+     * @param targetDates the dates used to find the catalog versions, in any order
+     * @return the catalog version matching each date, in the order of {@code targetDates}
+     */
+    public List<StaticCatalog> getVersionsForDates(List<Date> targetDates);
+
 }
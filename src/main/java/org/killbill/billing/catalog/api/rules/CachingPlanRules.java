@@ -0,0 +1,212 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.catalog.api.rules;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.killbill.billing.catalog.api.BillingActionPolicy;
+import org.killbill.billing.catalog.api.BillingAlignment;
+import org.killbill.billing.catalog.api.BillingPeriod;
+import org.killbill.billing.catalog.api.CatalogApiException;
+import org.killbill.billing.catalog.api.PhaseType;
+import org.killbill.billing.catalog.api.Plan;
+import org.killbill.billing.catalog.api.PlanAlignmentCreate;
+import org.killbill.billing.catalog.api.PlanChangeResult;
+import org.killbill.billing.catalog.api.PlanPhaseSpecifier;
+import org.killbill.billing.catalog.api.PlanSpecifier;
+import org.killbill.billing.catalog.api.StaticCatalog;
+
+/**
+ * {@code PlanRules} decorator which remembers the answer of each rule resolution, keyed by the product, billing period,
+ * price list and phase type of the {@code PlanSpecifier} and {@code PlanPhaseSpecifier} it was asked for.
+ * <p/>
+ * Specifiers given by plan name are resolved through the catalog first, so that all the plans sharing these attributes
+ * (including price override plans) share the same entry. Specifiers referring to a product or a price list unknown
+ * to the catalog are not remembered: the number of entries is bounded by the content of the catalog version.
+ * <p/>
+ * The first resolution for a given key walks the {@code Case*} lists of the delegate; subsequent ones are a hash lookup,
+ * which matters when the same few combinations are resolved over and over (e.g. mass plan migrations).
+ * Failed resolutions are not remembered.
+ * <p/>
+ * The rules of a catalog version never change once loaded, so a cache should be kept per {@code StaticCatalog} version;
+ * it must not wrap the rules of a {@code MutableStaticCatalog} still being modified.
+ */
+public class CachingPlanRules implements PlanRules {
+
+    private final PlanRules delegate;
+
+    private final Map<PlanPhaseSpecifier, PlanAlignmentCreate> planCreateAlignments = new ConcurrentHashMap<PlanPhaseSpecifier, PlanAlignmentCreate>();
+    private final Map<PlanPhaseSpecifier, BillingActionPolicy> planCancelPolicies = new ConcurrentHashMap<PlanPhaseSpecifier, BillingActionPolicy>();
+    private final Map<PlanPhaseSpecifier, BillingAlignment> billingAlignments = new ConcurrentHashMap<PlanPhaseSpecifier, BillingAlignment>();
+    private final Map<PlanChangeKey, PlanChangeResult> planChangeResults = new ConcurrentHashMap<PlanChangeKey, PlanChangeResult>();
+
+    public CachingPlanRules(final PlanRules delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public StaticCatalog getCatalog() {
+        return delegate.getCatalog();
+    }
+
+    @Override
+    public Iterable<CaseChangePlanPolicy> getCaseChangePlanPolicy() {
+        return delegate.getCaseChangePlanPolicy();
+    }
+
+    @Override
+    public Iterable<CaseChangePlanAlignment> getCaseChangePlanAlignment() {
+        return delegate.getCaseChangePlanAlignment();
+    }
+
+    @Override
+    public Iterable<CaseCancelPolicy> getCaseCancelPolicy() {
+        return delegate.getCaseCancelPolicy();
+    }
+
+    @Override
+    public Iterable<CaseCreateAlignment> getCaseCreateAlignment() {
+        return delegate.getCaseCreateAlignment();
+    }
+
+    @Override
+    public Iterable<CaseBillingAlignment> getCaseBillingAlignment() {
+        return delegate.getCaseBillingAlignment();
+    }
+
+    @Override
+    public Iterable<CasePriceList> getCasePriceList() {
+        return delegate.getCasePriceList();
+    }
+
+    @Override
+    public PlanAlignmentCreate getPlanCreateAlignment(final PlanSpecifier specifier) throws CatalogApiException {
+        final PlanPhaseSpecifier key = toCacheKey(specifier, null);
+        PlanAlignmentCreate result = key == null ? null : planCreateAlignments.get(key);
+        if (result == null) {
+            result = delegate.getPlanCreateAlignment(specifier);
+            if (result != null && key != null) {
+                planCreateAlignments.put(key, result);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public BillingActionPolicy getPlanCancelPolicy(final PlanPhaseSpecifier planPhase) throws CatalogApiException {
+        final PlanPhaseSpecifier key = toCacheKey(planPhase, planPhase.getPhaseType());
+        BillingActionPolicy result = key == null ? null : planCancelPolicies.get(key);
+        if (result == null) {
+            result = delegate.getPlanCancelPolicy(planPhase);
+            if (result != null && key != null) {
+                planCancelPolicies.put(key, result);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public BillingAlignment getBillingAlignment(final PlanPhaseSpecifier planPhase) throws CatalogApiException {
+        final PlanPhaseSpecifier key = toCacheKey(planPhase, planPhase.getPhaseType());
+        BillingAlignment result = key == null ? null : billingAlignments.get(key);
+        if (result == null) {
+            result = delegate.getBillingAlignment(planPhase);
+            if (result != null && key != null) {
+                billingAlignments.put(key, result);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public PlanChangeResult getPlanChangeResult(final PlanPhaseSpecifier from, final PlanSpecifier to) throws CatalogApiException {
+        final PlanPhaseSpecifier fromKey = toCacheKey(from, from.getPhaseType());
+        final PlanPhaseSpecifier toKey = toCacheKey(to, null);
+        final PlanChangeKey key = fromKey == null || toKey == null ? null : new PlanChangeKey(fromKey, toKey);
+        PlanChangeResult result = key == null ? null : planChangeResults.get(key);
+        if (result == null) {
+            result = delegate.getPlanChangeResult(from, to);
+            if (result != null && key != null) {
+                planChangeResults.put(key, result);
+            }
+        }
+        return result;
+    }
+
+    // Returns null if the specifier does not resolve to a product (and price list) of the catalog
+    private PlanPhaseSpecifier toCacheKey(final PlanSpecifier specifier, final PhaseType phaseType) {
+        final String productName;
+        final BillingPeriod billingPeriod;
+        final String priceListName;
+        try {
+            if (specifier.getPlanName() != null) {
+                final Plan plan = getCatalog().findPlan(specifier.getPlanName());
+                productName = plan.getProduct().getName();
+                billingPeriod = plan.getRecurringBillingPeriod();
+                priceListName = plan.getPriceList() != null ? plan.getPriceList().getName() : null;
+            } else {
+                productName = getCatalog().findProduct(specifier.getProductName()).getName();
+                billingPeriod = specifier.getBillingPeriod();
+                priceListName = specifier.getPriceListName() != null ? getCatalog().findPriceList(specifier.getPriceListName()).getName() : null;
+            }
+        } catch (final CatalogApiException e) {
+            return null;
+        }
+        return new PlanPhaseSpecifier(productName, billingPeriod, priceListName, phaseType);
+    }
+
+    private static final class PlanChangeKey {
+
+        private final PlanPhaseSpecifier from;
+        private final PlanPhaseSpecifier to;
+
+        private PlanChangeKey(final PlanPhaseSpecifier from, final PlanPhaseSpecifier to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+
+            final PlanChangeKey that = (PlanChangeKey) o;
+
+            if (from != null ? !from.equals(that.from) : that.from != null) {
+                return false;
+            }
+            if (to != null ? !to.equals(that.to) : that.to != null) {
+                return false;
+            }
+
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = from != null ? from.hashCode() : 0;
+            result = 31 * result + (to != null ? to.hashCode() : 0);
+            return result;
+        }
+    }
+}
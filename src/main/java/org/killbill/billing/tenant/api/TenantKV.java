@@ -32,6 +32,9 @@ public interface TenantKV extends Entity {
         PUSH_NOTIFICATION_CB(true),
         // Catalog Key
         CATALOG(false),
+        // Serialized snapshot (format versioned) of all the catalog versions stored under CATALOG, rebuilt on each catalog change.
+        // Values are strings, so the snapshot is base64 encoded and must be decoded before being loaded (it cannot be memory-mapped in place)
+        SERIALIZED_CATALOG(true),
         // Overdue Configuration Key
         OVERDUE_CONFIG(true),
         // Per Tenant Configuration Key
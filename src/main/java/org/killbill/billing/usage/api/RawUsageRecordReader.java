@@ -0,0 +1,271 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.usage.api;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+
+/**
+ * Cursor over a stream of {@code RawUsageRecord} written by {@code RawUsageRecordWriter}.
+ * <p/>
+ * The reader itself is the current record: call {@link #next()} to move to the next one. Fields are decoded
+ * in place, without allocating a record object per row ({@link #getDate()} and {@link #getAmount()} allocate on demand,
+ * use {@link #getDateMillis()} and {@link #getUnscaledAmount()} in tight loops).
+ * <p/>
+ * Use {@link #open(Path)} to read a file through a memory-mapped buffer.
+ * <p/>
+ * Corrupt or truncated streams are reported by an {@code IllegalStateException} from {@link #next()}.
+ */
+public final class RawUsageRecordReader implements RawUsageRecord, Closeable {
+
+    private final ByteBuffer buffer;
+    private final Closeable resource;
+
+    private final List<UUID> subscriptionIds = new ArrayList<UUID>();
+    private final List<String> unitTypes = new ArrayList<String>();
+    private final List<String> trackingIds = new ArrayList<String>();
+
+    private UUID subscriptionId;
+    private String unitType;
+    private String trackingId;
+    private long date = 0;
+    private int scale;
+    private long unscaledAmount;
+    private BigInteger bigUnscaledAmount;
+
+    /**
+     * @param buffer the serialized records, from its current position to its limit
+     */
+    public RawUsageRecordReader(final ByteBuffer buffer) {
+        this(buffer, null);
+    }
+
+    private RawUsageRecordReader(final ByteBuffer buffer, final Closeable resource) {
+        this.buffer = buffer.slice();
+        this.resource = resource;
+        readHeader();
+    }
+
+    /**
+     * The file is mapped as a single buffer, so it cannot exceed {@code Integer.MAX_VALUE} bytes (2 GB, i.e. about 200 million
+     * records at typical sizes): larger histories should be split across several files, e.g. one per period.
+     *
+     * @param path the file to read
+     * @return a reader over the memory-mapped content of the file
+     * @throws IOException if the file cannot be mapped or is larger than 2 GB
+     */
+    public static RawUsageRecordReader open(final Path path) throws IOException {
+        final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Raw usage record file " + path + " is larger than " + Integer.MAX_VALUE + " bytes");
+            }
+            return new RawUsageRecordReader(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), channel);
+        } catch (final IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void readHeader() {
+        try {
+            for (final byte b : RawUsageRecordWriter.MAGIC) {
+                if (buffer.get() != b) {
+                    throw new IllegalArgumentException("Not a raw usage record stream");
+                }
+            }
+            final byte version = buffer.get();
+            if (version != RawUsageRecordWriter.VERSION) {
+                throw new IllegalArgumentException("Unsupported raw usage record stream version " + version);
+            }
+        } catch (final BufferUnderflowException e) {
+            throw new IllegalArgumentException("Not a raw usage record stream", e);
+        }
+    }
+
+    /**
+     * Move to the next record.
+     *
+     * @return false if the end of the stream has been reached
+     * @throws IllegalStateException if the stream is corrupt or truncated
+     */
+    public boolean next() {
+        if (!buffer.hasRemaining()) {
+            return false;
+        }
+
+        try {
+            readSubscriptionId();
+            unitType = readString(unitTypes);
+            trackingId = readString(trackingIds);
+
+            date += readSignedVarLong();
+
+            final long tag = readSignedVarLong();
+            scale = (int) (tag >> 1);
+            if ((tag & 1) == 1) {
+                final int length = readLength();
+                if (length == 0) {
+                    throw new IllegalStateException("Malformed amount in raw usage record stream");
+                }
+                final byte[] bytes = new byte[length];
+                buffer.get(bytes);
+                bigUnscaledAmount = new BigInteger(bytes);
+                unscaledAmount = 0;
+            } else {
+                bigUnscaledAmount = null;
+                unscaledAmount = readSignedVarLong();
+            }
+        } catch (final BufferUnderflowException e) {
+            throw new IllegalStateException("Truncated raw usage record stream", e);
+        }
+        return true;
+    }
+
+    private void readSubscriptionId() {
+        final int ref = readReference(subscriptionIds);
+        if (ref == RawUsageRecordWriter.REF_NULL) {
+            subscriptionId = null;
+        } else if (ref == RawUsageRecordWriter.REF_NEW) {
+            subscriptionId = new UUID(buffer.getLong(), buffer.getLong());
+            if (subscriptionIds.size() < RawUsageRecordWriter.MAX_DICTIONARY_SIZE) {
+                subscriptionIds.add(subscriptionId);
+            }
+        } else {
+            subscriptionId = subscriptionIds.get(ref - RawUsageRecordWriter.REF_OFFSET);
+        }
+    }
+
+    private String readString(final List<String> dictionary) {
+        final int ref = readReference(dictionary);
+        if (ref == RawUsageRecordWriter.REF_NULL) {
+            return null;
+        } else if (ref == RawUsageRecordWriter.REF_NEW) {
+            final byte[] bytes = new byte[readLength()];
+            buffer.get(bytes);
+            final String value = new String(bytes, StandardCharsets.UTF_8);
+            if (dictionary.size() < RawUsageRecordWriter.MAX_DICTIONARY_SIZE) {
+                dictionary.add(value);
+            }
+            return value;
+        } else {
+            return dictionary.get(ref - RawUsageRecordWriter.REF_OFFSET);
+        }
+    }
+
+    private int readReference(final List<?> dictionary) {
+        final long ref = readVarLong();
+        if (ref < 0 || ref - RawUsageRecordWriter.REF_OFFSET >= dictionary.size()) {
+            throw new IllegalStateException("Malformed dictionary reference " + ref + " in raw usage record stream");
+        }
+        return (int) ref;
+    }
+
+    private int readLength() {
+        final long length = readVarLong();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalStateException("Malformed length " + length + " in raw usage record stream");
+        }
+        return (int) length;
+    }
+
+    private long readSignedVarLong() {
+        final long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private long readVarLong() {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            final byte b = buffer.get();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IllegalStateException("Malformed varint in raw usage record stream");
+    }
+
+    @Override
+    public UUID getSubscriptionId() {
+        return subscriptionId;
+    }
+
+    /**
+     * @return the record date, in milliseconds since the epoch
+     */
+    public long getDateMillis() {
+        return date;
+    }
+
+    @Override
+    public DateTime getDate() {
+        return new DateTime(date, DateTimeZone.UTC);
+    }
+
+    @Override
+    public String getUnitType() {
+        return unitType;
+    }
+
+    public int getScale() {
+        return scale;
+    }
+
+    /**
+     * @return the unscaled amount (see {@link #getScale()})
+     * @throws ArithmeticException if the unscaled amount does not fit in a long
+     */
+    public long getUnscaledAmount() {
+        if (bigUnscaledAmount != null) {
+            throw new ArithmeticException("Unscaled amount does not fit in a long");
+        }
+        return unscaledAmount;
+    }
+
+    @Override
+    public BigDecimal getAmount() {
+        return bigUnscaledAmount != null ? new BigDecimal(bigUnscaledAmount, scale) : BigDecimal.valueOf(unscaledAmount, scale);
+    }
+
+    @Override
+    public String getTrackingId() {
+        return trackingId;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (resource != null) {
+            resource.close();
+        }
+    }
+}
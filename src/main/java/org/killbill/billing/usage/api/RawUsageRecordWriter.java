@@ -0,0 +1,202 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.usage.api;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Writes a stream of {@code RawUsageRecord} in a compact binary format, read back by {@code RawUsageRecordReader}.
+ * <p/>
+ * Format (all integers are unsigned LEB128 varints, signed ones are zigzag encoded first):
+ * <pre>
+ * stream     := 'K' 'B' 'R' 'U' version(1 byte) record*
+ * record     := subscription unitType trackingId dateDelta amount
+ * reference  := 0 (null) | 1 followed by the value (new value) | n &gt;= 2 (dictionary entry n - 2)
+ * dateDelta  := signed: record date (epoch millis) - date of the previous record (0 for the first one)
+ * amount     := signed tag = scale * 2 + isBig, then signed unscaled value (isBig = 0)
+ *               or length and big-endian two's-complement bytes of the unscaled value (isBig = 1)
+ * </pre>
+ * Subscription ids are referenced through a dictionary of 16 bytes values, unit types and tracking ids through a dictionary
+ * of UTF-8 strings (length then bytes). Each new value is added to its dictionary until the dictionary holds
+ * {@link #MAX_DICTIONARY_SIZE} entries; after that, values not in the dictionary are always written inline.
+ */
+public final class RawUsageRecordWriter implements Closeable, Flushable {
+
+    static final byte[] MAGIC = {'K', 'B', 'R', 'U'};
+    static final byte VERSION = 1;
+    static final int MAX_DICTIONARY_SIZE = 65536;
+
+    static final int REF_NULL = 0;
+    static final int REF_NEW = 1;
+    static final int REF_OFFSET = 2;
+
+    private static final int BUFFER_SIZE = 8192;
+    // Max size of a varint encoded long
+    private static final int MAX_VARINT_SIZE = 10;
+
+    private final OutputStream out;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position = 0;
+
+    private final Map<UUID, Integer> subscriptionIds = new HashMap<UUID, Integer>();
+    private final Map<String, Integer> unitTypes = new HashMap<String, Integer>();
+    private final Map<String, Integer> trackingIds = new HashMap<String, Integer>();
+
+    private long previousDate = 0;
+
+    public RawUsageRecordWriter(final OutputStream out) throws IOException {
+        this.out = out;
+        writeBytes(MAGIC, 0, MAGIC.length);
+        ensureCapacity(1);
+        buffer[position++] = VERSION;
+    }
+
+    public void write(final RawUsageRecord record) throws IOException {
+        write(record.getSubscriptionId(), record.getDate().getMillis(), record.getUnitType(), record.getAmount(), record.getTrackingId());
+    }
+
+    /**
+     * @param subscriptionId the subscription id
+     * @param date           the record date, in milliseconds since the epoch
+     * @param unitType       the unit type
+     * @param amount         the amount
+     * @param trackingId     the tracking id
+     * @throws IOException if the underlying stream cannot be written to
+     */
+    public void write(final UUID subscriptionId, final long date, final String unitType, final BigDecimal amount, final String trackingId) throws IOException {
+        writeSubscriptionId(subscriptionId);
+        writeString(unitTypes, unitType);
+        writeString(trackingIds, trackingId);
+
+        writeSignedVarLong(date - previousDate);
+        previousDate = date;
+
+        final BigInteger unscaledValue = amount.unscaledValue();
+        final boolean isBig = unscaledValue.bitLength() > 63;
+        writeSignedVarLong(amount.scale() * 2L + (isBig ? 1 : 0));
+        if (isBig) {
+            final byte[] bytes = unscaledValue.toByteArray();
+            writeVarLong(bytes.length);
+            writeBytes(bytes, 0, bytes.length);
+        } else {
+            writeSignedVarLong(unscaledValue.longValue());
+        }
+    }
+
+    private void writeSubscriptionId(final UUID subscriptionId) throws IOException {
+        if (writeReference(subscriptionIds, subscriptionId)) {
+            writeLong(subscriptionId.getMostSignificantBits());
+            writeLong(subscriptionId.getLeastSignificantBits());
+        }
+    }
+
+    private void writeString(final Map<String, Integer> dictionary, final String value) throws IOException {
+        if (writeReference(dictionary, value)) {
+            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length);
+            writeBytes(bytes, 0, bytes.length);
+        }
+    }
+
+    // Returns true if the value needs to be written inline
+    private <T> boolean writeReference(final Map<T, Integer> dictionary, final T value) throws IOException {
+        if (value == null) {
+            writeVarLong(REF_NULL);
+            return false;
+        }
+        final Integer idx = dictionary.get(value);
+        if (idx != null) {
+            writeVarLong(idx + REF_OFFSET);
+            return false;
+        }
+        if (dictionary.size() < MAX_DICTIONARY_SIZE) {
+            dictionary.put(value, dictionary.size());
+        }
+        writeVarLong(REF_NEW);
+        return true;
+    }
+
+    private void writeSignedVarLong(final long value) throws IOException {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    private void writeVarLong(final long value) throws IOException {
+        ensureCapacity(MAX_VARINT_SIZE);
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        buffer[position++] = (byte) remaining;
+    }
+
+    private void writeLong(final long value) throws IOException {
+        ensureCapacity(8);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            buffer[position++] = (byte) (value >>> shift);
+        }
+    }
+
+    private void writeBytes(final byte[] bytes, final int offset, final int length) throws IOException {
+        if (length > BUFFER_SIZE) {
+            flushBuffer();
+            out.write(bytes, offset, length);
+            return;
+        }
+        ensureCapacity(length);
+        System.arraycopy(bytes, offset, buffer, position, length);
+        position += length;
+    }
+
+    private void ensureCapacity(final int length) throws IOException {
+        if (position + length > BUFFER_SIZE) {
+            flushBuffer();
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        flushBuffer();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flushBuffer();
+        } finally {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.usage.api;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The usage of a subscription for a given unit type, aggregated into time buckets.
+ */
+public interface UsageHistogram {
+
+    UUID getSubscriptionId();
+
+    String getUnitType();
+
+    UsageGranularity getGranularity();
+
+    /**
+     * @return the non empty buckets, ordered by start date
+     */
+    List<UsageHistogramBucket> getBuckets();
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.usage.api;
+
+import java.math.BigDecimal;
+
+import org.joda.time.DateTime;
+
+public interface UsageHistogramBucket {
+
+    /**
+     * @return the start date of the bucket, inclusive (the bucket ends at the start of the next one)
+     */
+    DateTime getStart();
+
+    /**
+     * @return the usage amount recorded within that bucket
+     */
+    BigDecimal getAmount();
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.usage.api;
+
+/**
+ * Snapshot of the state of the asynchronous usage ingestion buffer.
+ */
+public interface UsageIngestionMetrics {
+
+    /**
+     * @return the number of records waiting to be flushed
+     */
+    int getQueueDepth();
+
+    /**
+     * @return the maximum number of records the buffer can hold
+     */
+    int getQueueCapacity();
+
+    /**
+     * @return the number of group commits since startup
+     */
+    long getNbFlushes();
+
+    /**
+     * @return the average duration of a group commit, in milliseconds
+     */
+    double getAverageFlushLatencyMillis();
+
+    /**
+     * @return the maximum duration of a group commit, in milliseconds
+     */
+    long getMaxFlushLatencyMillis();
+
+    /**
+     * @return the number of records refused since startup because the buffer was full
+     */
+    long getNbRejectedRecords();
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.usage.api;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import org.joda.time.DateTime;
+import org.killbill.billing.catalog.api.Limit;
+
+/**
+ * A catalog {@code Limit} crossed by the running usage total of a subscription.
+ */
+public interface UsageLimitBreach {
+
+    public enum BreachType {
+        // The running total went above Limit#getMax
+        ABOVE_MAX,
+        // The running total at the end of the usage billing period is below Limit#getMin
+        BELOW_MIN
+    }
+
+    UUID getSubscriptionId();
+
+    String getUnitType();
+
+    BreachType getBreachType();
+
+    /**
+     * @return the catalog {@code Limit} which was breached
+     */
+    Limit getLimit();
+
+    /**
+     * @return the running usage total for the current usage billing period
+     */
+    BigDecimal getAmount();
+
+    /**
+     * @return the date of the usage record (or of the end of the period for BELOW_MIN) which triggered the breach
+     */
+    DateTime getEffectiveDate();
+}
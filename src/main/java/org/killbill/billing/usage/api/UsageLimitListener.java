@@ -0,0 +1,35 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.usage.api;
+
+/**
+ * Callback notified when usage crosses the catalog limits of a subscription.
+ *
+ * @see UsageUserApi#registerUsageLimitListener(UsageLimitListener, org.killbill.billing.util.callcontext.TenantContext)
+ */
+public interface UsageLimitListener {
+
+    /**
+     * Invoked once per breach, after the usage records which triggered it are persisted, on the node which ingested
+     * these records only: a breach is never delivered to the listeners of other nodes, so it can safely trigger actions
+     * such as alerts or suspensions. Implementations should return quickly as they are invoked on the ingestion path.
+     *
+     * @param breach the breach
+     */
+    void onUsageLimitBreach(UsageLimitBreach breach);
+}
@@ -0,0 +1,324 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.usage.api;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+
+/**
+ * Columnar representation of a set of {@code SubscriptionUsageRecord}, suited for high volume ingestion.
+ * <p/>
+ * Instead of one {@code UsageRecord} (and its {@code DateTime} and {@code BigDecimal}) per data point, the batch keeps parallel
+ * primitive arrays: record dates as epoch milliseconds, amounts as unscaled longs sharing a single scale and unit types
+ * as indexes into a dictionary of distinct unit types.
+ * <p/>
+ * Records are grouped by subscription: each group carries the subscription id and the tracking id of the
+ * equivalent {@code SubscriptionUsageRecord}, and owns the contiguous range of records
+ * [{@link #getRecordsStart(int)}, {@link #getRecordsEnd(int)}).
+ * <p/>
+ * Instances are immutable and are created through a {@link Builder}.
+ */
+public class UsageRecordBatch {
+
+    private final int scale;
+
+    private final UUID[] subscriptionIds;
+    private final String[] trackingIds;
+    // Length is nbSubscriptions + 1, so that records of subscription i are [recordOffsets[i], recordOffsets[i + 1])
+    private final int[] recordOffsets;
+
+    private final String[] unitTypes;
+
+    private final int[] unitTypeIndexes;
+    private final long[] recordDates;
+    private final long[] amounts;
+
+    private UsageRecordBatch(final Builder builder) {
+        this.scale = builder.scale;
+        this.subscriptionIds = Arrays.copyOf(builder.subscriptionIds, builder.nbSubscriptions);
+        this.trackingIds = Arrays.copyOf(builder.trackingIds, builder.nbSubscriptions);
+        this.recordOffsets = Arrays.copyOf(builder.recordOffsets, builder.nbSubscriptions + 1);
+        this.recordOffsets[builder.nbSubscriptions] = builder.nbRecords;
+        this.unitTypes = builder.unitTypes.toArray(new String[0]);
+        this.unitTypeIndexes = Arrays.copyOf(builder.unitTypeIndexes, builder.nbRecords);
+        this.recordDates = Arrays.copyOf(builder.recordDates, builder.nbRecords);
+        this.amounts = Arrays.copyOf(builder.amounts, builder.nbRecords);
+    }
+
+    /**
+     * @return the scale shared by all amounts, i.e. amount = unscaledAmount * 10^-scale
+     */
+    public int getScale() {
+        return scale;
+    }
+
+    /**
+     * @return the number of subscription groups
+     */
+    public int getNbSubscriptions() {
+        return subscriptionIds.length;
+    }
+
+    /**
+     * @return the total number of records, across all subscription groups
+     */
+    public int getNbRecords() {
+        return recordDates.length;
+    }
+
+    public UUID getSubscriptionId(final int subscriptionIdx) {
+        return subscriptionIds[subscriptionIdx];
+    }
+
+    public String getTrackingId(final int subscriptionIdx) {
+        return trackingIds[subscriptionIdx];
+    }
+
+    /**
+     * @return the index of the first record of that subscription group, inclusive
+     */
+    public int getRecordsStart(final int subscriptionIdx) {
+        return recordOffsets[subscriptionIdx];
+    }
+
+    /**
+     * @return the index following the last record of that subscription group, exclusive
+     */
+    public int getRecordsEnd(final int subscriptionIdx) {
+        return recordOffsets[subscriptionIdx + 1];
+    }
+
+    /**
+     * @return the number of distinct unit types in the batch
+     */
+    public int getNbUnitTypes() {
+        return unitTypes.length;
+    }
+
+    /**
+     * @param unitTypeIdx index in the unit type dictionary
+     * @return the unit type
+     */
+    public String getUnitTypeForIndex(final int unitTypeIdx) {
+        return unitTypes[unitTypeIdx];
+    }
+
+    /**
+     * @return the index in the unit type dictionary of that record
+     */
+    public int getUnitTypeIndex(final int recordIdx) {
+        return unitTypeIndexes[recordIdx];
+    }
+
+    public String getUnitType(final int recordIdx) {
+        return unitTypes[unitTypeIndexes[recordIdx]];
+    }
+
+    /**
+     * @return the record date, in milliseconds since the epoch
+     */
+    public long getRecordDate(final int recordIdx) {
+        return recordDates[recordIdx];
+    }
+
+    /**
+     * @return the record amount, unscaled (see {@link #getScale()})
+     */
+    public long getUnscaledAmount(final int recordIdx) {
+        return amounts[recordIdx];
+    }
+
+    public BigDecimal getAmount(final int recordIdx) {
+        return BigDecimal.valueOf(amounts[recordIdx], scale);
+    }
+
+    /**
+     * Converts the batch into the equivalent {@code SubscriptionUsageRecord}, one per subscription group.
+     * Within a group, records are grouped by unit type, in order of first appearance.
+     *
+     * @return the list of {@code SubscriptionUsageRecord}
+     */
+    public List<SubscriptionUsageRecord> toSubscriptionUsageRecords() {
+        final List<SubscriptionUsageRecord> result = new ArrayList<SubscriptionUsageRecord>(subscriptionIds.length);
+        for (int i = 0; i < subscriptionIds.length; i++) {
+            final Map<Integer, List<UsageRecord>> recordsByUnitType = new LinkedHashMap<Integer, List<UsageRecord>>();
+            for (int j = recordOffsets[i]; j < recordOffsets[i + 1]; j++) {
+                List<UsageRecord> usageRecords = recordsByUnitType.get(unitTypeIndexes[j]);
+                if (usageRecords == null) {
+                    usageRecords = new ArrayList<UsageRecord>();
+                    recordsByUnitType.put(unitTypeIndexes[j], usageRecords);
+                }
+                usageRecords.add(new UsageRecord(new DateTime(recordDates[j], DateTimeZone.UTC), getAmount(j)));
+            }
+
+            final List<UnitUsageRecord> unitUsageRecords = new ArrayList<UnitUsageRecord>(recordsByUnitType.size());
+            for (final Map.Entry<Integer, List<UsageRecord>> entry : recordsByUnitType.entrySet()) {
+                unitUsageRecords.add(new UnitUsageRecord(unitTypes[entry.getKey()], entry.getValue()));
+            }
+            result.add(new SubscriptionUsageRecord(subscriptionIds[i], trackingIds[i], unitUsageRecords));
+        }
+        return result;
+    }
+
+    /**
+     * Converts existing {@code SubscriptionUsageRecord} into a columnar batch.
+     *
+     * @param records the records to convert
+     * @param scale   the scale to use for all amounts
+     * @return the batch
+     * @throws ArithmeticException if an amount cannot be represented with that scale without rounding, or does not fit in a long
+     */
+    public static UsageRecordBatch fromSubscriptionUsageRecords(final Iterable<SubscriptionUsageRecord> records, final int scale) {
+        final Builder builder = new Builder(scale);
+        for (final SubscriptionUsageRecord record : records) {
+            builder.addSubscription(record.getSubscriptionId(), record.getTrackingId());
+            for (final UnitUsageRecord unitUsageRecord : record.getUnitUsageRecord()) {
+                final int unitTypeIdx = builder.internUnitType(unitUsageRecord.getUnitType());
+                for (final UsageRecord usageRecord : unitUsageRecord.getDailyAmount()) {
+                    builder.addRecord(unitTypeIdx,
+                                      usageRecord.getDate().getMillis(),
+                                      usageRecord.getAmount().setScale(scale, RoundingMode.UNNECESSARY).unscaledValue().longValueExact());
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Appends records into growable primitive arrays. A builder is not thread safe.
+     */
+    public static class Builder {
+
+        private static final int INITIAL_CAPACITY = 16;
+
+        private final int scale;
+
+        private final Map<String, Integer> unitTypeDictionary = new HashMap<String, Integer>();
+        private final List<String> unitTypes = new ArrayList<String>();
+
+        private int nbSubscriptions = 0;
+        private UUID[] subscriptionIds = new UUID[INITIAL_CAPACITY];
+        private String[] trackingIds = new String[INITIAL_CAPACITY];
+        private int[] recordOffsets = new int[INITIAL_CAPACITY + 1];
+
+        private int nbRecords = 0;
+        private int[] unitTypeIndexes = new int[INITIAL_CAPACITY];
+        private long[] recordDates = new long[INITIAL_CAPACITY];
+        private long[] amounts = new long[INITIAL_CAPACITY];
+
+        /**
+         * @param scale the scale shared by all unscaled amounts added to this builder
+         */
+        public Builder(final int scale) {
+            this.scale = scale;
+        }
+
+        /**
+         * Starts a new subscription group: subsequent records are attached to it.
+         *
+         * @param subscriptionId the subscription id, cannot be null
+         * @param trackingId     the tracking id for that group of records
+         * @return this builder
+         */
+        public Builder addSubscription(final UUID subscriptionId, final String trackingId) {
+            if (subscriptionId == null) {
+                throw new IllegalArgumentException("Subscription id cannot be null");
+            }
+            if (nbSubscriptions == subscriptionIds.length) {
+                final int newCapacity = subscriptionIds.length * 2;
+                subscriptionIds = Arrays.copyOf(subscriptionIds, newCapacity);
+                trackingIds = Arrays.copyOf(trackingIds, newCapacity);
+                recordOffsets = Arrays.copyOf(recordOffsets, newCapacity + 1);
+            }
+            subscriptionIds[nbSubscriptions] = subscriptionId;
+            trackingIds[nbSubscriptions] = trackingId;
+            recordOffsets[nbSubscriptions] = nbRecords;
+            nbSubscriptions++;
+            return this;
+        }
+
+        /**
+         * @param unitType the unit type
+         * @return the index of that unit type in the batch dictionary, to be used with {@link #addRecord(int, long, long)}
+         */
+        public int internUnitType(final String unitType) {
+            final Integer existing = unitTypeDictionary.get(unitType);
+            if (existing != null) {
+                return existing;
+            }
+            final int unitTypeIdx = unitTypes.size();
+            unitTypes.add(unitType);
+            unitTypeDictionary.put(unitType, unitTypeIdx);
+            return unitTypeIdx;
+        }
+
+        /**
+         * Adds a record to the current subscription group.
+         *
+         * @param unitType       the unit type
+         * @param recordDate     the record date, in milliseconds since the epoch
+         * @param unscaledAmount the amount, unscaled
+         * @return this builder
+         */
+        public Builder addRecord(final String unitType, final long recordDate, final long unscaledAmount) {
+            return addRecord(internUnitType(unitType), recordDate, unscaledAmount);
+        }
+
+        /**
+         * Adds a record to the current subscription group.
+         *
+         * @param unitTypeIdx    the unit type index, as returned by {@link #internUnitType(String)}
+         * @param recordDate     the record date, in milliseconds since the epoch
+         * @param unscaledAmount the amount, unscaled
+         * @return this builder
+         */
+        public Builder addRecord(final int unitTypeIdx, final long recordDate, final long unscaledAmount) {
+            if (nbSubscriptions == 0) {
+                throw new IllegalStateException("addSubscription must be called before adding records");
+            }
+            if (unitTypeIdx < 0 || unitTypeIdx >= unitTypes.size()) {
+                throw new IllegalArgumentException("Unknown unit type index " + unitTypeIdx);
+            }
+            if (nbRecords == recordDates.length) {
+                final int newCapacity = recordDates.length * 2;
+                unitTypeIndexes = Arrays.copyOf(unitTypeIndexes, newCapacity);
+                recordDates = Arrays.copyOf(recordDates, newCapacity);
+                amounts = Arrays.copyOf(amounts, newCapacity);
+            }
+            unitTypeIndexes[nbRecords] = unitTypeIdx;
+            recordDates[nbRecords] = recordDate;
+            amounts[nbRecords] = unscaledAmount;
+            nbRecords++;
+            return this;
+        }
+
+        public UsageRecordBatch build() {
+            return new UsageRecordBatch(this);
+        }
+    }
+}
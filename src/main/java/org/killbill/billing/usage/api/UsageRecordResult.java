@@ -0,0 +1,48 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.usage.api;
+
+import java.util.UUID;
+
+/**
+ * The per-record result of a batch usage ingestion call.
+ *
+ * @see UsageUserApi#recordRolledUpUsages(Iterable, org.killbill.billing.util.callcontext.CallContext)
+ */
+public interface UsageRecordResult {
+
+    /**
+     * @return the subscription id of the submitted record
+     */
+    public UUID getSubscriptionId();
+
+    /**
+     * @return the tracking id of the submitted record
+     */
+    public String getTrackingId();
+
+    /**
+     * @return the {@code UsageRecordStatus}
+     */
+    public UsageRecordStatus getStatus();
+
+    /**
+     * @return the reason why the record was not accepted, null if the record was accepted
+     */
+    public UsageApiException getException();
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.usage.api;
+
+/**
+ * The outcome of recording a single {@code SubscriptionUsageRecord} as part of a batch.
+ */
+public enum UsageRecordStatus {
+    // The record was persisted
+    ACCEPTED,
+    // A record with the same tracking ID already exists, nothing was persisted (USAGE_RECORD_TRACKING_ID_ALREADY_EXISTS)
+    DUPLICATE_TRACKING_ID,
+    // The record was invalid or could not be persisted, see UsageRecordResult#getException
+    REJECTED
+}
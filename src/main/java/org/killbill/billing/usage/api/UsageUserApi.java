@@ -17,7 +17,10 @@
 package org.killbill.billing.usage.api;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletionStage;
 
 import org.joda.time.DateTime;
 import org.joda.time.LocalDate;
@@ -26,7 +29,9 @@ import org.killbill.billing.payment.api.PluginProperty;
 import org.killbill.billing.security.RequiresPermissions;
 import org.killbill.billing.util.callcontext.CallContext;
 import org.killbill.billing.util.callcontext.TenantContext;
+import org.killbill.billing.util.entity.Pagination;
 
+import static org.killbill.billing.security.Permission.ADMIN_CAN_FIX_DATA;
 import static org.killbill.billing.security.Permission.USAGE_CAN_RECORD;
 
 public interface UsageUserApi extends KillbillApi {
@@ -41,6 +46,87 @@ public interface UsageUserApi extends KillbillApi {
     @RequiresPermissions(USAGE_CAN_RECORD)
     public void recordRolledUpUsage(SubscriptionUsageRecord usage, CallContext context) throws UsageApiException;
 
+    /**
+     * Batch version of {@link #recordRolledUpUsage(SubscriptionUsageRecord, CallContext)}: records can span many subscriptions
+     * and are processed with a single permission check and context resolution.
+     * <p/>
+     * Each record is accepted or refused on its own: a duplicate tracking ID or an invalid record does not fail the rest of the batch.
+     * The iterable is only traversed once, so it can be backed by a stream of records.
+     *
+     * @param usages  the usage records to persist
+     * @param context tenant context
+     * @return the per-record results, in the iteration order of {@code usages}
+     */
+    @RequiresPermissions(USAGE_CAN_RECORD)
+    public List<UsageRecordResult> recordRolledUpUsages(Iterable<SubscriptionUsageRecord> usages, CallContext context);
+
+    /**
+     * Columnar version of {@link #recordRolledUpUsages(Iterable, CallContext)}, which avoids allocating
+     * one {@code UsageRecord} per data point.
+     *
+     * @param usages  the usage records to persist, one group per subscription and tracking id
+     * @param context tenant context
+     * @return the per-subscription group results, in the order of the groups in {@code usages}
+     */
+    @RequiresPermissions(USAGE_CAN_RECORD)
+    public List<UsageRecordResult> recordRolledUpUsages(UsageRecordBatch usages, CallContext context);
+
+    /**
+     * Asynchronous version of {@link #recordRolledUpUsages(Iterable, CallContext)}: records are appended to a bounded
+     * buffer and persisted by group commits, which lets callers absorb usage spikes without blocking on each write.
+     * <p/>
+     * With {@code UsageRecordDurability.ON_ENQUEUE}, the stage completes once the records are buffered and the results only reflect
+     * the validation done at that time (records later found to be duplicates are dropped). With {@code UsageRecordDurability.ON_COMMIT},
+     * the stage completes once the records are persisted, with the same results as the synchronous call.
+     * <p/>
+     * If the buffer cannot accept the records, the stage completes exceptionally with a {@code UsageApiException}
+     * ({@code USAGE_RECORD_BUFFER_FULL}) and none of the records are buffered.
+     *
+     * @param usages     the usage records to persist
+     * @param durability when to complete the returned stage
+     * @param context    tenant context
+     * @return the per-record results, in the iteration order of {@code usages}
+     */
+    @RequiresPermissions(USAGE_CAN_RECORD)
+    public CompletionStage<List<UsageRecordResult>> recordRolledUpUsagesAsync(Iterable<SubscriptionUsageRecord> usages, UsageRecordDurability durability, CallContext context);
+
+    /**
+     * @param context tenant context
+     * @return the current state of the asynchronous ingestion buffer
+     */
+    public UsageIngestionMetrics getUsageIngestionMetrics(TenantContext context);
+
+    /**
+     * Register a listener notified when the running usage totals of a subscription cross the min/max of the
+     * {@code Limit} defined in the catalog for that unit, as records are ingested.
+     * <p/>
+     * Each breach is delivered once, to the listeners registered on the node which ingested the records that triggered it.
+     * As records can be ingested on any node, the same listener should be registered on every node to observe all breaches.
+     *
+     * @param listener the listener
+     * @param context  tenant context, only breaches for that tenant are notified
+     */
+    public void registerUsageLimitListener(UsageLimitListener listener, TenantContext context);
+
+    /**
+     * @param listener the listener to remove
+     * @param context  tenant context
+     */
+    public void unregisterUsageLimitListener(UsageLimitListener listener, TenantContext context);
+
+    /**
+     * Check which tracking IDs have already been recorded, e.g. to skip the already persisted part of a batch when
+     * retrying after a partial failure, instead of relying on {@code USAGE_RECORD_TRACKING_ID_ALREADY_EXISTS} errors.
+     * <p/>
+     * Implementations can first consult an in-memory probabilistic filter (which can only yield false positives)
+     * and fall back to the data store for the candidates it matched: the result is always exact.
+     *
+     * @param trackingIdsBySubscriptionId the tracking IDs to check, for each subscription id
+     * @param context                     tenant context
+     * @return the subset of the tracking IDs which already exist, for each subscription id (subscriptions without any existing tracking ID are omitted)
+     */
+    public Map<UUID, Set<String>> getExistingTrackingIds(Map<UUID, Set<String>> trackingIdsBySubscriptionId, TenantContext context);
+
     /**
      * Get usage information for a given subscription.
      *
@@ -54,8 +140,28 @@ public interface UsageUserApi extends KillbillApi {
      */
     public RolledUpUsage getUsageForSubscription(UUID subscriptionId, String unitType, DateTime startDate, DateTime endDate, Iterable<PluginProperty> properties, TenantContext context);
 
+    /**
+     * Get usage information for a given subscription, split into time buckets (e.g. one amount per day).
+     * <p/>
+     * Buckets are aligned on the account timezone (start of the hour, day, week or month) and only buckets
+     * with recorded usage are returned.
+     *
+     * @param subscriptionId subscription id
+     * @param unitType       unit type for this usage, null for all unit types
+     * @param startDate      start date of the usage period (with respect to the account timezone)
+     * @param endDate        end date of the usage period (with respect to the account timezone)
+     * @param granularity    the size of the buckets
+     * @param properties     plugin specific properties
+     * @param context        tenant context
+     * @return one histogram per unit type
+     */
+    public List<UsageHistogram> getUsageHistogramForSubscription(UUID subscriptionId, String unitType, DateTime startDate, DateTime endDate, UsageGranularity granularity, Iterable<PluginProperty> properties, TenantContext context);
+
     /**
      * Get usage information for a given subscription.
+     * <p/>
+     * Implementations can serve this from running totals maintained per subscription, unit type and usage billing period
+     * as records are ingested, instead of aggregating the raw records of each period on every call.
      *
      * @param subscriptionId subscription id
      * @param properties     plugin specific properties
@@ -63,4 +169,45 @@ public interface UsageUserApi extends KillbillApi {
      * @return usage data (rolled-up)
      */
     public List<RolledUpUsage> getAllUsageForSubscription(UUID subscriptionId, List<DateTime> transitionDates, Iterable<PluginProperty> properties, TenantContext context);
+
+    /**
+     * Get usage information for a set of subscriptions, typically all the usage-billed subscriptions of an account.
+     * <p/>
+     * This is equivalent to calling {@link #getAllUsageForSubscription(UUID, List, Iterable, TenantContext)} for each subscription,
+     * but lets the implementation retrieve the usage data for all subscriptions at once.
+     *
+     * @param transitionDatesBySubscriptionId the transition dates for each subscription id
+     * @param properties                      plugin specific properties
+     * @param context                         tenant context
+     * @return usage data (rolled-up) for each subscription id
+     */
+    public Map<UUID, List<RolledUpUsage>> getAllUsageForSubscriptions(Map<UUID, List<DateTime>> transitionDatesBySubscriptionId, Iterable<PluginProperty> properties, TenantContext context);
+
+    /**
+     * Recompute the running usage totals of a given subscription from its raw usage records, e.g. after the raw records
+     * have been corrected.
+     *
+     * @param subscriptionId subscription id
+     * @param context        call context
+     */
+    @RequiresPermissions(ADMIN_CAN_FIX_DATA)
+    public void rebuildUsageTotals(UUID subscriptionId, CallContext context);
+
+    /**
+     * Get the raw (not rolled-up) usage records for a given subscription, e.g. for audits or re-rating.
+     * <p/>
+     * Records are streamed from the underlying data store as the result is iterated, ordered by record date:
+     * the full history is never loaded in memory. The returned {@code Pagination} must be closed after use.
+     *
+     * @param subscriptionId subscription id
+     * @param unitType       unit type for this usage, null for all unit types
+     * @param startDate      start date of the usage period, inclusive
+     * @param endDate        end date of the usage period, exclusive
+     * @param offset         the offset of the first result
+     * @param limit          the maximum number of results to retrieve
+     * @param properties     plugin specific properties
+     * @param context        tenant context
+     * @return the raw usage records
+     */
+    public Pagination<RawUsageRecord> getRawUsageForSubscription(UUID subscriptionId, String unitType, DateTime startDate, DateTime endDate, Long offset, Long limit, Iterable<PluginProperty> properties, TenantContext context);
 }